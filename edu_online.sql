@@ -17,6 +17,7 @@ DROP TABLE IF EXISTS tb_exam_question;
 DROP TABLE IF EXISTS tb_exam;
 DROP TABLE IF EXISTS tb_exercise_submission;
 DROP TABLE IF EXISTS tb_exercise;
+DROP TABLE IF EXISTS tb_learning_summary;
 DROP TABLE IF EXISTS tb_learning_progress;
 DROP TABLE IF EXISTS tb_course_enrollment;
 DROP TABLE IF EXISTS tb_course_lesson;
@@ -51,7 +52,8 @@ CREATE TABLE tb_user (
     INDEX idx_username (username),
     INDEX idx_email (email),
     INDEX idx_phone (phone),
-    INDEX idx_role (role)
+    INDEX idx_role (role),
+    INDEX idx_create_time (create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户表';
 
 -- 课程分类表
@@ -89,9 +91,9 @@ CREATE TABLE tb_course (
     deleted TINYINT DEFAULT 0 COMMENT '逻辑删除：0-未删除，1-已删除',
     FOREIGN KEY (category_id) REFERENCES tb_course_category(id),
     FOREIGN KEY (instructor_id) REFERENCES tb_user(id),
-    INDEX idx_category_id (category_id),
-    INDEX idx_instructor_id (instructor_id),
-    INDEX idx_status (status),
+    INDEX idx_category_id (category_id, status, create_time),
+    INDEX idx_instructor_id (instructor_id, create_time),
+    INDEX idx_status_student (status, student_count),
     INDEX idx_create_time (create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程表';
 
@@ -137,10 +139,12 @@ CREATE TABLE tb_course_enrollment (
     course_id BIGINT NOT NULL COMMENT '课程ID',
     enroll_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '选课时间',
     status TINYINT DEFAULT 1 COMMENT '状态：0-取消，1-正常',
+    completed_lessons INT DEFAULT 0 COMMENT '已完成课时数',
+    progress INT DEFAULT 0 COMMENT '课程完成百分比（0-100）',
     FOREIGN KEY (user_id) REFERENCES tb_user(id),
     FOREIGN KEY (course_id) REFERENCES tb_course(id),
     UNIQUE KEY uk_user_course (user_id, course_id),
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_id (user_id, status, enroll_time),
     INDEX idx_course_id (course_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='选课记录表';
 
@@ -151,7 +155,8 @@ CREATE TABLE tb_learning_progress (
     lesson_id BIGINT NOT NULL COMMENT '课时ID',
     progress INT DEFAULT 0 COMMENT '进度百分比（0-100）',
     last_position INT DEFAULT 0 COMMENT '最后播放位置（秒）',
-    duration INT DEFAULT 0 COMMENT '观看时长（秒）',
+    duration INT DEFAULT 0 COMMENT '观看时长（秒，已观看区间去重后的总长度）',
+    watched_intervals VARCHAR(3000) DEFAULT NULL COMMENT '已观看区间（秒）：起点-终点,起点-终点',
     completed TINYINT DEFAULT 0 COMMENT '是否完成：0-未完成，1-已完成',
     last_access_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '最后访问时间',
     FOREIGN KEY (user_id) REFERENCES tb_user(id),
@@ -161,6 +166,17 @@ CREATE TABLE tb_learning_progress (
     INDEX idx_lesson_id (lesson_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='学习进度表';
 
+-- 学习统计表（每个用户一行，由学习进度增量维护，定期全量重建）
+CREATE TABLE tb_learning_summary (
+    user_id BIGINT PRIMARY KEY COMMENT '用户ID',
+    lessons_touched INT DEFAULT 0 COMMENT '学习过的课时数',
+    lessons_completed INT DEFAULT 0 COMMENT '已完成课时数',
+    watch_seconds BIGINT DEFAULT 0 COMMENT '总观看时长（秒）',
+    last_activity_time DATETIME COMMENT '最后学习时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    FOREIGN KEY (user_id) REFERENCES tb_user(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='学习统计表';
+
 -- 练习题表
 CREATE TABLE tb_exercise (
     id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '练习ID',
@@ -253,7 +269,7 @@ CREATE TABLE tb_exam_record (
     FOREIGN KEY (user_id) REFERENCES tb_user(id),
     FOREIGN KEY (exam_id) REFERENCES tb_exam(id),
     UNIQUE KEY uk_user_exam (user_id, exam_id),
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_id (user_id, create_time),
     INDEX idx_exam_id (exam_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='考试记录表';
 
@@ -274,7 +290,7 @@ CREATE TABLE tb_discussion (
     deleted TINYINT DEFAULT 0 COMMENT '逻辑删除：0-未删除，1-已删除',
     FOREIGN KEY (course_id) REFERENCES tb_course(id),
     FOREIGN KEY (user_id) REFERENCES tb_user(id),
-    INDEX idx_course_id (course_id),
+    INDEX idx_course_id (course_id, status, is_top, create_time),
     INDEX idx_user_id (user_id),
     INDEX idx_create_time (create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讨论帖表';
@@ -314,8 +330,8 @@ CREATE TABLE tb_course_review (
     FOREIGN KEY (user_id) REFERENCES tb_user(id),
     FOREIGN KEY (course_id) REFERENCES tb_course(id),
     UNIQUE KEY uk_user_course (user_id, course_id),
-    INDEX idx_course_id (course_id),
-    INDEX idx_user_id (user_id),
+    INDEX idx_course_id (course_id, status, create_time),
+    INDEX idx_user_id (user_id, create_time),
     INDEX idx_rating (rating)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程评价表';
 
@@ -333,9 +349,9 @@ CREATE TABLE tb_operation_log (
     status TINYINT COMMENT '状态：0-失败，1-成功',
     error_msg TEXT COMMENT '错误信息',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_user_id (user_id),
+    INDEX idx_user_id (user_id, create_time),
     INDEX idx_create_time (create_time),
-    INDEX idx_operation (operation)
+    INDEX idx_operation (operation, create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表';
 
 -- 插入基础数据
@@ -442,7 +458,8 @@ CREATE TABLE tb_role_permission (
 INSERT INTO tb_role (role_name, role_code, description, status) VALUES
 ('学生', 'ROLE_STUDENT', '学生角色，可以学习课程、参加考试、发表评价', 1),
 ('讲师', 'ROLE_INSTRUCTOR', '讲师角色，可以创建课程、管理内容', 1),
-('管理员', 'ROLE_ADMIN', '管理员角色，拥有系统全部权限', 1);
+('管理员', 'ROLE_ADMIN', '管理员角色，拥有系统全部权限', 1),
+('匿名用户', 'ROLE_ANONYMOUS', '未登录访问公开路由时使用的角色，不分配给用户', 1);
 
 -- 插入默认权限数据（常用权限）
 INSERT INTO tb_permission (perm_name, perm_code, resource, method, description, status) VALUES
@@ -458,6 +475,11 @@ INSERT INTO tb_permission (perm_name, perm_code, resource, method, description,
 INSERT INTO tb_role_permission (role_id, permission_id)
 SELECT r.id, p.id FROM tb_role r, tb_permission p WHERE r.role_code = 'ROLE_ADMIN';
 
+-- 为匿名角色分配公开目录的查看权限
+INSERT INTO tb_role_permission (role_id, permission_id)
+SELECT r.id, p.id FROM tb_role r, tb_permission p
+WHERE r.role_code = 'ROLE_ANONYMOUS' AND p.perm_code IN ('COURSE_VIEW');
+
 -- 为讲师角色分配课程、考试相关权限
 INSERT INTO tb_role_permission (role_id, permission_id)
 SELECT r.id, p.id FROM tb_role r, tb_permission p 
@@ -2,11 +2,13 @@ package com.edu;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 在线学习平台主启动类
  */
 @SpringBootApplication
+@EnableScheduling
 public class EduOnlineApplication {
 
     public static void main(String[] args) {
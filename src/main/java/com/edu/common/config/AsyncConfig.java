@@ -0,0 +1,22 @@
+package com.edu.common.config;
+
+import com.edu.security.AuthContextTaskDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * 异步任务配置
+ * Spring Boot 自动配置的 applicationTaskExecutor（@Async 默认使用）会应用此处的 TaskDecorator；
+ * CompletableFuture 需显式传入该执行器，而不是使用公共 ForkJoinPool
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean
+    public TaskDecorator authContextTaskDecorator() {
+        return new AuthContextTaskDecorator();
+    }
+}
@@ -0,0 +1,55 @@
+package com.edu.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由访问策略配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "security")
+public class RoutePolicyConfig {
+
+    /**
+     * 未匹配任何规则时的访问级别
+     */
+    private String defaultAccess = "authenticated";
+
+    /**
+     * 路由规则列表
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        /**
+         * 路径模式：/api/courses、/api/courses/*、/api/health/**
+         */
+        private String pattern;
+
+        /**
+         * 请求方法，多个用逗号分隔，为空或*表示全部
+         */
+        private String methods;
+
+        /**
+         * 访问级别：public-公开，authenticated-需登录，role-指定角色
+         */
+        private String access = "authenticated";
+
+        /**
+         * 允许的角色（access为role时生效），如 ADMIN,INSTRUCTOR
+         */
+        private String roles;
+
+        /**
+         * 限流分类
+         */
+        private String rateClass;
+    }
+}
@@ -14,6 +14,7 @@ public enum ResultCode {
     UNAUTHORIZED(401, "未授权"),
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源不存在"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
     VALIDATION_ERROR(400, "参数验证失败");
 
     private final Integer code;
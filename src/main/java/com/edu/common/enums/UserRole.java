@@ -24,4 +24,12 @@ public enum UserRole {
         }
         return null;
     }
+
+    /**
+     * 用户表角色对应的RBAC角色编码（ROLE_ + 枚举名），角色无效时返回null
+     */
+    public static String roleCodeOf(Integer code) {
+        UserRole role = getByCode(code);
+        return role != null ? "ROLE_" + role.name() : null;
+    }
 }
\ No newline at end of file
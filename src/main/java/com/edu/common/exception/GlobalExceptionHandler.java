@@ -9,6 +9,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -22,8 +23,12 @@ public class GlobalExceptionHandler {
      * 处理自定义业务异常
      */
     @ExceptionHandler(BusinessException.class)
-    public Result<Void> handleBusinessException(BusinessException e) {
+    public Result<Void> handleBusinessException(BusinessException e, HttpServletResponse response) {
         log.warn("业务异常：{}", e.getMessage());
+        if (e.getResultCode() == ResultCode.TOO_MANY_REQUESTS) {
+            // 过载拒绝同时返回HTTP 429，便于客户端和网关退避
+            response.setStatus(ResultCode.TOO_MANY_REQUESTS.getCode());
+        }
         return Result.fail(e.getResultCode(), e.getMessage());
     }
 
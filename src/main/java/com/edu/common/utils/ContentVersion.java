@@ -0,0 +1,25 @@
+package com.edu.common.utils;
+
+import lombok.Getter;
+
+/**
+ * 资源版本（用于条件请求）
+ */
+@Getter
+public class ContentVersion {
+
+    /**
+     * 强ETag（含引号）
+     */
+    private final String etag;
+
+    /**
+     * 最后修改时间（毫秒），未知时为-1
+     */
+    private final long lastModified;
+
+    public ContentVersion(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,149 @@
+package com.edu.common.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.IService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 条件请求工具（ETag / Last-Modified）
+ * 版本只读取 update_time 等少量列或聚合值，命中 If-None-Match / If-Modified-Since 时直接返回304，
+ * 不再加载完整数据，也不做序列化。
+ * update_time 只精确到秒，同一秒内的两次修改无法区分，不能单独作为版本：ETag 须由可变内容列计算，
+ * update_time 只用于 Last-Modified。调用方以常量声明各自资源的可变内容列（ofRow 另需包含 update_time）
+ */
+public final class ContentVersions {
+
+    private static final String UPDATE_TIME = "update_time";
+
+    private ContentVersions() {
+    }
+
+    /**
+     * 单行资源的版本：按主键读取指定列（须包含 update_time 及全部可变内容列），行不存在时返回null
+     */
+    public static <T> ContentVersion ofRow(IService<T> service, Long id, String... columns) {
+        return ofRow(id, versionRow(service, id, columns), columns);
+    }
+
+    /**
+     * 按主键读取版本列，行不存在时返回null；
+     * 资源需要归属或可见性校验时，校验所需的列一并读取，先用该行完成校验，再由 {@link #ofRow(Long, Map, String...)} 计算版本
+     */
+    public static <T> Map<String, Object> versionRow(IService<T> service, Long id, String... columns) {
+        if (id == null) {
+            return null;
+        }
+        QueryWrapper<T> wrapper = new QueryWrapper<>();
+        wrapper.select(columns).eq("id", id);
+        return service.getMap(wrapper);
+    }
+
+    /**
+     * 由已读取的版本列计算单行资源的版本，行为null时返回null
+     */
+    public static ContentVersion ofRow(Long id, Map<String, Object> row, String... columns) {
+        if (row == null) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder().append(id);
+        for (String column : columns) {
+            content.append('|').append(row.get(column));
+        }
+        return new ContentVersion(etag(content), toMillis(row.get(UPDATE_TIME)));
+    }
+
+    /**
+     * 行集合的版本：按条件统计行数、最大 update_time 及各行内容列校验和的异或，增删改与排序调整均会改变版本
+     *
+     * @param contentColumns 可变内容列（列名为代码中的常量）
+     */
+    public static <T> ContentVersion ofSet(IService<T> service, QueryWrapper<T> wrapper, String... contentColumns) {
+        StringBuilder digest = new StringBuilder("BIT_XOR(CRC32(CONCAT_WS('|', id");
+        for (String column : contentColumns) {
+            digest.append(", QUOTE(").append(column).append(')');
+        }
+        digest.append("))) AS digest");
+        wrapper.select("COUNT(*) AS cnt", "MAX(" + UPDATE_TIME + ") AS last_modified", digest.toString());
+        Map<String, Object> row = service.getMap(wrapper);
+        Object count = row != null ? row.get("cnt") : 0;
+        Object lastModified = row != null ? row.get("last_modified") : null;
+        Object sum = row != null ? row.get("digest") : null;
+        return new ContentVersion(etag(count + "|" + lastModified + "|" + sum), toMillis(lastModified));
+    }
+
+    /**
+     * 已查询出的记录的版本：按记录内容计算摘要，仍可省去序列化与传输
+     */
+    public static <T> ContentVersion ofRecords(Collection<T> records, Function<T, LocalDateTime> updateTime,
+                                               Object extra) {
+        StringBuilder content = new StringBuilder();
+        LocalDateTime latest = null;
+        for (T record : records) {
+            content.append(record).append('\n');
+            LocalDateTime time = updateTime.apply(record);
+            if (time != null && (latest == null || time.isAfter(latest))) {
+                latest = time;
+            }
+        }
+        content.append(extra);
+        return new ContentVersion(etag(content), toMillis(latest));
+    }
+
+    /**
+     * 检查条件请求，未修改时已设置304状态，调用方直接返回null即可；
+     * 同时要求客户端每次使用前重新验证，避免启发式缓存返回过期内容
+     */
+    public static boolean notModified(ServletWebRequest request, ContentVersion version) {
+        if (version == null) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        if (version.getLastModified() >= 0) {
+            return request.checkNotModified(version.getEtag(), version.getLastModified());
+        }
+        return request.checkNotModified(version.getEtag());
+    }
+
+    /**
+     * 读取版本行中的整数列（用于归属与可见性校验），列为空时返回null
+     */
+    public static Long longColumn(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    public static Integer intColumn(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    public static String etag(CharSequence content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static String etag(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    private static long toMillis(Object time) {
+        if (time instanceof LocalDateTime) {
+            return ((LocalDateTime) time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (time instanceof Date) {
+            return ((Date) time).getTime();
+        }
+        return -1;
+    }
+}
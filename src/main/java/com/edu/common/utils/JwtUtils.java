@@ -1,5 +1,6 @@
 package com.edu.common.utils;
 
+import com.edu.security.JwtPrincipal;
 import io.jsonwebtoken.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -17,12 +19,18 @@ import java.util.function.Function;
 @Component
 public class JwtUtils {
 
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret:edu-online-secret-key-2024}")
     private String secret;
 
-    @Value("${jwt.expire:604800000}")
+    @Value("${jwt.expire:1800000}")
     private Long expire;
 
+    @Value("${jwt.refresh-expire:1209600000}")
+    private Long refreshExpire;
+
     @Value("${jwt.header:Authorization}")
     private String header;
 
@@ -30,19 +38,32 @@ public class JwtUtils {
     private String tokenHead;
 
     /**
-     * 生成token
+     * 生成token（访问令牌）
      */
     public String generateToken(String username, Long userId, Integer role) {
+        return buildToken(username, userId, role, TYPE_ACCESS, expire);
+    }
+
+    /**
+     * 生成刷新令牌
+     */
+    public String generateRefreshToken(String username, Long userId, Integer role) {
+        return buildToken(username, userId, role, TYPE_REFRESH, refreshExpire);
+    }
+
+    private String buildToken(String username, Long userId, Integer role, String type, long ttl) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
         claims.put("username", username);
+        claims.put("type", type);
 
         Date nowDate = new Date();
-        Date expireDate = new Date(nowDate.getTime() + expire);
+        Date expireDate = new Date(nowDate.getTime() + ttl);
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString().replace("-", ""))
                 .setSubject(username)
                 .setIssuedAt(nowDate)
                 .setExpiration(expireDate)
@@ -77,6 +98,21 @@ public class JwtUtils {
         }
     }
 
+    /**
+     * 解析并校验token，一次验签得到完整的用户信息
+     * 过期、签名错误等情况抛出异常
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = getClaimsFromToken(token);
+        return new JwtPrincipal(
+                Long.valueOf(claims.get("userId").toString()),
+                claims.getSubject(),
+                Integer.valueOf(claims.get("role").toString()),
+                claims.getExpiration(),
+                claims.getId(),
+                claims.get("type") != null ? claims.get("type").toString() : TYPE_ACCESS);
+    }
+
     /**
      * 从token中获取用户名
      */
@@ -118,8 +154,9 @@ public class JwtUtils {
      */
     public boolean validateToken(String token) {
         try {
-            getClaimsFromToken(token);
-            return !isTokenExpired(token);
+            // 解析时已校验签名与过期时间，无需再次解析
+            Date expiration = getClaimsFromToken(token).getExpiration();
+            return expiration == null || expiration.after(new Date());
         } catch (Exception e) {
             return false;
         }
@@ -145,6 +182,10 @@ public class JwtUtils {
         return expire;
     }
 
+    public Long getRefreshExpire() {
+        return refreshExpire;
+    }
+
     public String getHeader() {
         return header;
     }
@@ -0,0 +1,161 @@
+package com.edu.common.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import com.edu.common.result.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 键集分页工具
+ * 按排序列（均为降序，最后一列须唯一，通常为id）定位下一页，游标为上一页末行排序值的不透明编码。
+ * 查询条件形如 (a < ?) OR (a = ? AND b < ?)，配合 (a, b) 联合索引，任意深度翻页的代价与第一页相同。
+ * 排序列可以为空：降序时 NULL 排在最后，a < ? 同时包含 a IS NULL，游标中的空值按 IS NULL 匹配
+ */
+@Component
+public class KeysetPager {
+
+    private static final String VERSION = "v1";
+
+    @Value("${business.page.default-size:20}")
+    private int defaultSize;
+
+    @Value("${business.page.max-size:100}")
+    private int maxSize;
+
+    /**
+     * 按 create_time, id 降序分页
+     */
+    public <T> CursorPage<T> page(IService<T> service, LambdaQueryWrapper<T> wrapper, String cursor, Integer size,
+                                  SFunction<T, LocalDateTime> timeColumn, SFunction<T, Long> idColumn) {
+        return page(service, wrapper, cursor, size, Arrays.asList(timeColumn, idColumn));
+    }
+
+    /**
+     * 按给定排序列降序分页
+     *
+     * @param wrapper 过滤条件，不应包含排序与limit
+     * @param keys    排序列，最后一列须唯一
+     */
+    public <T> CursorPage<T> page(IService<T> service, LambdaQueryWrapper<T> wrapper, String cursor, Integer size,
+                                  List<SFunction<T, ?>> keys) {
+        int pageSize = resolveSize(size);
+
+        if (StringUtils.hasText(cursor)) {
+            Object[] values = decode(cursor, keys.size());
+            wrapper.and(w -> {
+                boolean first = true;
+                for (int i = 0; i < keys.size(); i++) {
+                    if (values[i] == null) {
+                        continue; // 降序时 NULL 排在最后，其后没有更小的值
+                    }
+                    int current = i;
+                    if (!first) {
+                        w.or();
+                    }
+                    first = false;
+                    w.nested(o -> {
+                        for (int j = 0; j < current; j++) {
+                            if (values[j] == null) {
+                                o.isNull(keys.get(j));
+                            } else {
+                                o.eq(keys.get(j), values[j]);
+                            }
+                        }
+                        SFunction<T, ?> key = keys.get(current);
+                        o.and(x -> x.lt(key, values[current]).or().isNull(key));
+                    });
+                }
+            });
+        }
+        for (SFunction<T, ?> key : keys) {
+            wrapper.orderByDesc(key);
+        }
+        // 多取一条判断是否还有下一页
+        wrapper.last("LIMIT " + (pageSize + 1));
+
+        List<T> rows = service.list(wrapper);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+            nextCursor = encode(rows.get(pageSize - 1), keys);
+        }
+        return new CursorPage<>(rows, nextCursor, pageSize);
+    }
+
+    /**
+     * 规范化每页数量：为空取默认值，超过上限取上限
+     */
+    public int resolveSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultSize;
+        }
+        return Math.min(size, maxSize);
+    }
+
+    <T> String encode(T row, List<SFunction<T, ?>> keys) {
+        StringBuilder sb = new StringBuilder(VERSION);
+        for (SFunction<T, ?> key : keys) {
+            Object value = key.apply(row);
+            sb.append('|');
+            if (value == null) {
+                sb.append('n');
+            } else if (value instanceof LocalDateTime) {
+                sb.append('t').append(value);
+            } else if (value instanceof Long) {
+                sb.append('l').append(value);
+            } else if (value instanceof Integer) {
+                sb.append('i').append(value);
+            } else {
+                throw new IllegalStateException("不支持的分页排序列类型: " + value);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    Object[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != keyCount + 1 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            Object[] values = new Object[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                String part = parts[i + 1];
+                String text = part.substring(1);
+                switch (part.charAt(0)) {
+                    case 'n':
+                        values[i] = null;
+                        break;
+                    case 't':
+                        values[i] = LocalDateTime.parse(text);
+                        break;
+                    case 'l':
+                        values[i] = Long.valueOf(text);
+                        break;
+                    case 'i':
+                        values[i] = Integer.valueOf(text);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(raw);
+                }
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.edu.common.utils;
+
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 排序工具
+ * 将一次重排生成为单条 CASE 更新语句，避免逐行更新的多次往返与部分生效
+ */
+public final class SortOrderUtils {
+
+    private SortOrderUtils() {
+    }
+
+    /**
+     * 生成 sort_order 赋值片段：列表中第 i 个ID的排序号为 i
+     * ID已校验为非空且不重复的Long，直接拼入语句
+     */
+    public static String sortOrderCase(List<Long> ids) {
+        Set<Long> seen = new HashSet<>();
+        StringBuilder sql = new StringBuilder(32 + ids.size() * 24);
+        sql.append("sort_order = CASE id");
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null || !seen.add(id)) {
+                throw new BusinessException(ResultCode.VALIDATION_ERROR, "排序列表包含空值或重复的ID");
+            }
+            sql.append(" WHEN ").append(id.longValue()).append(" THEN ").append(i);
+        }
+        sql.append(" ELSE sort_order END");
+        return sql.toString();
+    }
+}
@@ -1,17 +1,24 @@
 package com.edu.modules.auth.controller;
 
+import com.edu.common.enums.ResultCode;
 import com.edu.common.result.Result;
 import com.edu.common.utils.JwtUtils;
 import com.edu.modules.user.entity.User;
 import com.edu.modules.user.service.UserService;
+import com.edu.security.ClientIpResolver;
+import com.edu.security.JwtPrincipal;
+import com.edu.security.JwtTokenCache;
+import com.edu.security.revocation.TokenRevocationService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.NotBlank;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,19 +39,35 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ClientIpResolver clientIpResolver;
+
     @ApiOperation("用户登录")
     @PostMapping("/login")
     public Result<Map<String, Object>> login(
             @ApiParam("用户名") @NotBlank(message = "用户名不能为空") @RequestParam String username,
-            @ApiParam("密码") @NotBlank(message = "密码不能为空") @RequestParam String password) {
+            @ApiParam("密码") @NotBlank(message = "密码不能为空") @RequestParam String password,
+            HttpServletRequest request) {
 
-        User user = userService.login(username, password);
+        User user = userService.login(username, password, clientIpResolver.resolve(request));
 
-        // 生成token
+        // 生成访问令牌与刷新令牌
         String token = jwtUtils.generateToken(user.getUsername(), user.getId(), user.getRole());
+        String refreshToken = jwtUtils.generateRefreshToken(user.getUsername(), user.getId(), user.getRole());
+
+        // 响应中不返回密码哈希
+        user.setPassword(null);
 
         Map<String, Object> data = new HashMap<>();
         data.put("token", jwtUtils.getTokenHead() + " " + token);
+        data.put("refreshToken", refreshToken);
+        data.put("expiresIn", jwtUtils.getExpire());
         data.put("user", user);
 
         return Result.success("登录成功", data);
@@ -64,24 +87,55 @@ public class AuthController {
 
     @ApiOperation("用户登出")
     @PostMapping("/logout")
-    public Result<String> logout() {
-        // JWT是无状态的，客户端直接删除token即可
-        // 这里可以进行一些清理工作，如将token加入黑名单
+    public Result<String> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @ApiParam("刷新令牌") @RequestParam(required = false) String refreshToken) {
+        // 吊销当前访问令牌及对应的刷新令牌
+        if (StringUtils.hasText(authorization)) {
+            String token = authorization.replace(jwtUtils.getTokenHead() + " ", "");
+            revokeQuietly(token);
+            jwtTokenCache.evict(token);
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            revokeQuietly(refreshToken);
+        }
         return Result.success("登出成功");
     }
 
     @ApiOperation("刷新Token")
     @PostMapping("/refresh")
-    public Result<Map<String, String>> refreshToken(@RequestHeader("Authorization") String token) {
+    public Result<Map<String, Object>> refreshToken(
+            @ApiParam("刷新令牌") @NotBlank(message = "刷新令牌不能为空") @RequestParam String refreshToken) {
+        JwtPrincipal principal;
         try {
-            String newToken = jwtUtils.refreshToken(token.replace(jwtUtils.getTokenHead() + " ", ""));
-            Map<String, String> data = new HashMap<>();
-            data.put("token", jwtUtils.getTokenHead() + " " + newToken);
-            return Result.success("刷新成功", data);
+            principal = jwtUtils.parseToken(refreshToken);
         } catch (Exception e) {
-            log.error("刷新Token失败", e);
-            return Result.fail("Token无效或已过期");
+            log.warn("刷新Token失败: {}", e.getMessage());
+            return Result.fail(ResultCode.UNAUTHORIZED, "Token无效或已过期");
+        }
+        if (!principal.isRefreshToken() || principal.getTokenId() == null) {
+            return Result.fail(ResultCode.UNAUTHORIZED, "Token无效或已过期");
+        }
+
+        // 刷新令牌只能使用一次：吊销成功者获得新令牌，重复使用视为失效
+        if (!tokenRevocationService.revoke(principal)) {
+            log.warn("刷新令牌重复使用: {}", principal);
+            return Result.fail(ResultCode.UNAUTHORIZED, "刷新令牌已失效");
+        }
+
+        // 以最新的用户状态和角色签发
+        User user = userService.getProfile(principal.getUserId());
+        if (user == null || user.getStatus() == null || user.getStatus() != 1) {
+            return Result.fail(ResultCode.FORBIDDEN, "账号已被禁用");
         }
+
+        String token = jwtUtils.generateToken(user.getUsername(), user.getId(), user.getRole());
+        String newRefreshToken = jwtUtils.generateRefreshToken(user.getUsername(), user.getId(), user.getRole());
+        Map<String, Object> data = new HashMap<>();
+        data.put("token", jwtUtils.getTokenHead() + " " + token);
+        data.put("refreshToken", newRefreshToken);
+        data.put("expiresIn", jwtUtils.getExpire());
+        return Result.success("刷新成功", data);
     }
 
     @ApiOperation("获取当前用户信息")
@@ -95,11 +149,20 @@ public class AuthController {
             return Result.fail("用户未登录");
         }
 
-        User user = userService.getById(userId);
+        User user = userService.getProfile(userId);
         if (user == null) {
             return Result.fail("用户不存在");
         }
 
         return Result.success(user);
     }
-}
\ No newline at end of file
+
+    private void revokeQuietly(String token) {
+        try {
+            tokenRevocationService.revoke(jwtUtils.parseToken(token));
+        } catch (Exception e) {
+            // 已过期或无效的token无需吊销
+            log.debug("忽略无效token: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.edu.modules.course.controller;
+
+import com.edu.common.result.Result;
+import com.edu.modules.course.entity.CourseCategory;
+import com.edu.modules.course.service.CourseCategoryNode;
+import com.edu.modules.course.service.CourseCategoryService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.constraints.NotBlank;
+import java.util.List;
+
+/**
+ * 课程分类控制器
+ */
+@Slf4j
+@Api(tags = "课程分类管理")
+@RestController
+@RequestMapping("/api/categories")
+@Validated
+public class CourseCategoryController {
+
+    @Autowired
+    private CourseCategoryService courseCategoryService;
+
+    @ApiOperation("获取分类树")
+    @GetMapping
+    public Result<List<CourseCategoryNode>> getCategoryTree() {
+        return Result.success(courseCategoryService.getCategoryTree());
+    }
+
+    @ApiOperation("创建分类")
+    @PostMapping
+    public Result<CourseCategory> createCategory(
+            @ApiParam("分类名称") @NotBlank(message = "分类名称不能为空") @RequestParam String name,
+            @ApiParam("父分类ID，0表示顶级分类") @RequestParam(defaultValue = "0") Long parentId,
+            @ApiParam("排序") @RequestParam(defaultValue = "0") Integer sortOrder) {
+
+        CourseCategory category = new CourseCategory();
+        category.setName(name);
+        category.setParentId(parentId);
+        category.setSortOrder(sortOrder);
+
+        CourseCategory result = courseCategoryService.createCategory(category);
+        return Result.success("分类创建成功", result);
+    }
+
+    @ApiOperation("更新分类")
+    @PutMapping("/{id}")
+    public Result<String> updateCategory(
+            @ApiParam("分类ID") @PathVariable Long id,
+            @ApiParam("分类名称") @RequestParam(required = false) String name,
+            @ApiParam("父分类ID") @RequestParam(required = false) Long parentId,
+            @ApiParam("排序") @RequestParam(required = false) Integer sortOrder,
+            @ApiParam("状态：0-禁用，1-启用") @RequestParam(required = false) Integer status) {
+
+        CourseCategory category = new CourseCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setParentId(parentId);
+        category.setSortOrder(sortOrder);
+        category.setStatus(status);
+
+        boolean success = courseCategoryService.updateCategory(category);
+        return success ? Result.success("分类更新成功") : Result.fail("分类更新失败");
+    }
+
+    @ApiOperation("删除分类")
+    @DeleteMapping("/{id}")
+    public Result<String> deleteCategory(@ApiParam("分类ID") @PathVariable Long id) {
+        boolean success = courseCategoryService.deleteCategory(id);
+        return success ? Result.success("分类删除成功") : Result.fail("分类删除失败");
+    }
+}
@@ -1,8 +1,11 @@
 package com.edu.modules.course.controller;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.edu.common.result.Result;
+import com.edu.common.utils.ContentVersions;
 import com.edu.modules.course.entity.CourseChapter;
 import com.edu.modules.course.service.CourseChapterService;
+import com.edu.modules.course.service.CourseService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -10,10 +13,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 课程章节控制器
@@ -25,9 +30,22 @@ import java.util.List;
 @Validated
 public class CourseChapterController {
 
+    /**
+     * 章节的可变内容列，用于计算列表ETag（见 {@link ContentVersions}）
+     */
+    private static final String[] CONTENT_COLUMNS = {"course_id", "title", "description", "sort_order", "status"};
+
+    /**
+     * 章节详情的版本列，course_id 同时用于归属校验
+     */
+    private static final String[] VERSION_COLUMNS = {"update_time", "course_id", "title", "description", "sort_order", "status"};
+
     @Autowired
     private CourseChapterService courseChapterService;
 
+    @Autowired
+    private CourseService courseService;
+
     @ApiOperation("创建章节")
     @PostMapping
     public Result<CourseChapter> createChapter(
@@ -77,7 +95,15 @@ public class CourseChapterController {
 
     @ApiOperation("获取章节列表")
     @GetMapping
-    public Result<List<CourseChapter>> getChapters(@ApiParam("课程ID") @PathVariable Long courseId) {
+    public Result<List<CourseChapter>> getChapters(@ApiParam("课程ID") @PathVariable Long courseId,
+                                                   ServletWebRequest request) {
+        // 未发布课程的章节仅管理员与讲师本人可见
+        courseService.checkCourseVisible(courseId);
+        QueryWrapper<CourseChapter> versionWrapper = new QueryWrapper<>();
+        versionWrapper.eq("course_id", courseId);
+        if (ContentVersions.notModified(request, ContentVersions.ofSet(courseChapterService, versionWrapper, CONTENT_COLUMNS))) {
+            return null;
+        }
         List<CourseChapter> chapters = courseChapterService.getChaptersByCourseId(courseId);
         return Result.success(chapters);
     }
@@ -86,10 +112,19 @@ public class CourseChapterController {
     @GetMapping("/{chapterId}")
     public Result<CourseChapter> getChapter(
             @ApiParam("课程ID") @PathVariable Long courseId,
-            @ApiParam("章节ID") @PathVariable Long chapterId) {
+            @ApiParam("章节ID") @PathVariable Long chapterId,
+            ServletWebRequest request) {
 
+        courseService.checkCourseVisible(courseId);
+        Map<String, Object> row = ContentVersions.versionRow(courseChapterService, chapterId, VERSION_COLUMNS);
+        if (row == null || !courseId.equals(ContentVersions.longColumn(row, "course_id"))) {
+            return Result.fail("章节不存在");
+        }
+        if (ContentVersions.notModified(request, ContentVersions.ofRow(chapterId, row, VERSION_COLUMNS))) {
+            return null;
+        }
         CourseChapter chapter = courseChapterService.getById(chapterId);
-        if (chapter == null || !chapter.getCourseId().equals(courseId)) {
+        if (chapter == null || !courseId.equals(chapter.getCourseId())) {
             return Result.fail("章节不存在");
         }
         return Result.success(chapter);
@@ -1,19 +1,31 @@
 package com.edu.modules.course.controller;
 
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
+import com.edu.common.utils.ContentVersions;
 import com.edu.modules.course.entity.Course;
+import com.edu.modules.course.service.CourseDetail;
+import com.edu.modules.course.service.CourseDetailService;
+import com.edu.modules.course.service.CourseFacetQuery;
+import com.edu.modules.course.service.CourseFacetResult;
 import com.edu.modules.course.service.CourseService;
+import com.edu.security.AuthContextHolder;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 课程控制器
@@ -25,9 +37,23 @@ import java.util.List;
 @Validated
 public class CourseController {
 
+    /**
+     * 课程的版本列（见 {@link ContentVersions}）：统计字段的更新不修改 update_time，与内容列一并计入；
+     * status、instructor_id 同时用于可见性校验
+     */
+    private static final String[] VERSION_COLUMNS = {"update_time", "title", "description", "cover_url",
+            "category_id", "instructor_id", "price", "level", "status",
+            "student_count", "review_count", "rating", "lesson_count", "duration"};
+
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseDetailService courseDetailService;
+
+    @Autowired
+    private AuthContextHolder authContextHolder;
+
     @ApiOperation("创建课程")
     @PostMapping
     public Result<Course> createCourse(
@@ -85,30 +111,82 @@ public class CourseController {
 
     @ApiOperation("获取课程详情")
     @GetMapping("/{id}")
-    public Result<Course> getCourse(@ApiParam("课程ID") @PathVariable Long id) {
+    public Result<Course> getCourse(@ApiParam("课程ID") @PathVariable Long id, ServletWebRequest request) {
+        // 先用版本行完成可见性校验，命中时不加载完整课程
+        Map<String, Object> row = ContentVersions.versionRow(courseService, id, VERSION_COLUMNS);
+        if (row == null || !courseService.canView(ContentVersions.intColumn(row, "status"),
+                ContentVersions.longColumn(row, "instructor_id"))) {
+            return Result.fail("课程不存在");
+        }
+        if (ContentVersions.notModified(request, ContentVersions.ofRow(id, row, VERSION_COLUMNS))) {
+            return null;
+        }
         Course course = courseService.getById(id);
         return course != null ? Result.success(course) : Result.fail("课程不存在");
     }
 
+    @ApiOperation("获取课程大纲（章节及课时）")
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<byte[]> getCourseOutline(@ApiParam("课程ID") @PathVariable Long id) {
+        byte[] body = courseService.getCourseOutlineJson(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(ContentVersions.etag(body))
+                .body(body);
+    }
+
+    @ApiOperation("获取课程详情页聚合数据")
+    @GetMapping("/{id}/detail")
+    public Result<CourseDetail> getCourseDetail(@ApiParam("课程ID") @PathVariable Long id) {
+        CourseDetail detail = courseDetailService.getCourseDetail(id, authContextHolder.getUserId());
+        return Result.success(detail);
+    }
+
     @ApiOperation("获取课程列表")
     @GetMapping
-    public Result<List<Course>> getCourses(
+    public Result<CursorPage<Course>> getCourses(
             @ApiParam("讲师ID") @RequestParam(required = false) Long instructorId,
             @ApiParam("分类ID") @RequestParam(required = false) Long categoryId,
-            @ApiParam("状态：0-草稿，1-发布，2-下架") @RequestParam(required = false) Integer status) {
-
-        List<Course> courses;
-        if (instructorId != null) {
-            courses = courseService.getCoursesByInstructor(instructorId);
-        } else if (categoryId != null) {
-            courses = courseService.getCoursesByCategory(categoryId);
-        } else {
-            courses = courseService.list();
+            @ApiParam("状态：0-草稿，1-发布，2-下架") @RequestParam(required = false) Integer status,
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size,
+            ServletWebRequest request) {
+
+        // 未发布课程仅管理员与讲师本人可见
+        if (!courseService.canViewUnpublished(instructorId)) {
+            status = 1;
+        }
+        CursorPage<Course> courses = courseService.pageCourses(instructorId, categoryId, status, cursor, size);
+        if (ContentVersions.notModified(request,
+                ContentVersions.ofRecords(courses.getRecords(), Course::getUpdateTime, courses.getNextCursor()))) {
+            return null;
         }
-
         return Result.success(courses);
     }
 
+    @ApiOperation("分面筛选课程（附各分面计数）")
+    @GetMapping("/facets")
+    public Result<CourseFacetResult> browseCourses(
+            @ApiParam("分类ID（包含子分类）") @RequestParam(required = false) Long categoryId,
+            @ApiParam("难度等级，可多选：1-初级，2-中级，3-高级") @RequestParam(required = false) List<Integer> level,
+            @ApiParam("价格区间，可多选，如 0-100、1000+") @RequestParam(required = false) List<String> priceBand,
+            @ApiParam("评分区间，可多选，如 4-4.5、4.5+") @RequestParam(required = false) List<String> ratingBand,
+            @ApiParam("是否免费") @RequestParam(required = false) Boolean free,
+            @ApiParam("页码") @RequestParam(defaultValue = "1") Integer page,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
+
+        CourseFacetQuery query = new CourseFacetQuery();
+        query.setCategoryId(categoryId);
+        query.setLevels(level);
+        query.setPriceBands(priceBand);
+        query.setRatingBands(ratingBand);
+        query.setFree(free);
+        query.setPage(page);
+        query.setSize(size);
+        return Result.success(courseService.browseCourses(query));
+    }
+
     @ApiOperation("发布课程")
     @PutMapping("/{id}/publish")
     public Result<String> publishCourse(@ApiParam("课程ID") @PathVariable Long id) {
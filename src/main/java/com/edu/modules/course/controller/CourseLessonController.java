@@ -1,6 +1,8 @@
 package com.edu.modules.course.controller;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.edu.common.result.Result;
+import com.edu.common.utils.ContentVersions;
 import com.edu.modules.course.entity.CourseLesson;
 import com.edu.modules.course.service.CourseLessonService;
 import io.swagger.annotations.Api;
@@ -10,10 +12,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 课程课时控制器
@@ -25,6 +29,18 @@ import java.util.List;
 @Validated
 public class CourseLessonController {
 
+    /**
+     * 课时的可变内容列，用于计算列表ETag（见 {@link ContentVersions}）
+     */
+    private static final String[] CONTENT_COLUMNS = {"chapter_id", "title", "description", "video_url",
+            "duration", "sort_order", "is_free", "status"};
+
+    /**
+     * 课时详情的版本列，chapter_id 同时用于归属校验
+     */
+    private static final String[] VERSION_COLUMNS = {"update_time", "chapter_id", "title", "description", "video_url",
+            "duration", "sort_order", "is_free", "status"};
+
     @Autowired
     private CourseLessonService courseLessonService;
 
@@ -89,7 +105,13 @@ public class CourseLessonController {
 
     @ApiOperation("获取课时列表")
     @GetMapping
-    public Result<List<CourseLesson>> getLessons(@ApiParam("章节ID") @PathVariable Long chapterId) {
+    public Result<List<CourseLesson>> getLessons(@ApiParam("章节ID") @PathVariable Long chapterId,
+                                                 ServletWebRequest request) {
+        QueryWrapper<CourseLesson> versionWrapper = new QueryWrapper<>();
+        versionWrapper.eq("chapter_id", chapterId);
+        if (ContentVersions.notModified(request, ContentVersions.ofSet(courseLessonService, versionWrapper, CONTENT_COLUMNS))) {
+            return null;
+        }
         List<CourseLesson> lessons = courseLessonService.getLessonsByChapterId(chapterId);
         return Result.success(lessons);
     }
@@ -98,10 +120,18 @@ public class CourseLessonController {
     @GetMapping("/{lessonId}")
     public Result<CourseLesson> getLesson(
             @ApiParam("章节ID") @PathVariable Long chapterId,
-            @ApiParam("课时ID") @PathVariable Long lessonId) {
+            @ApiParam("课时ID") @PathVariable Long lessonId,
+            ServletWebRequest request) {
 
+        Map<String, Object> row = ContentVersions.versionRow(courseLessonService, lessonId, VERSION_COLUMNS);
+        if (row == null || !chapterId.equals(ContentVersions.longColumn(row, "chapter_id"))) {
+            return Result.fail("课时不存在");
+        }
+        if (ContentVersions.notModified(request, ContentVersions.ofRow(lessonId, row, VERSION_COLUMNS))) {
+            return null;
+        }
         CourseLesson lesson = courseLessonService.getById(lessonId);
-        if (lesson == null || !lesson.getChapterId().equals(chapterId)) {
+        if (lesson == null || !chapterId.equals(lesson.getChapterId())) {
             return Result.fail("课时不存在");
         }
         return Result.success(lesson);
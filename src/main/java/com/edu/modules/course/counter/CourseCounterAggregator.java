@@ -0,0 +1,227 @@
+package com.edu.modules.course.counter;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.edu.modules.course.entity.Course;
+import com.edu.modules.course.mapper.CourseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 课程统计字段聚合器（写后异步落库）
+ * 选课、评价产生的增量按课程ID分段累加在内存中，定期以 x = x + ? 的批量语句写回；
+ * 课时变化只标记课程，刷新时重新计算该课程的课时数与时长。
+ * 另有定期对账任务按ID区间重新计算全部统计字段，修正多节点或异常退出造成的偏差
+ */
+@Slf4j
+@Component
+public class CourseCounterAggregator {
+
+    private static final int STRIPES = 16;
+    private static final Log BATCH_LOG = LogFactory.getLog(CourseCounterAggregator.class);
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Value("${business.course.counter.batch-size:500}")
+    private int batchSize;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * 增量记录持有读锁，对账区间重新计算持有写锁
+     */
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    public CourseCounterAggregator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 学员数变化（选课+1，退课-1）
+     */
+    public void addStudents(Long courseId, int delta) {
+        if (courseId == null || delta == 0) {
+            return;
+        }
+        record(courseId, d -> d.students += delta);
+    }
+
+    /**
+     * 评价变化
+     *
+     * @param reviews     评价数增量
+     * @param ratingDelta 评分总和增量
+     */
+    public void addReviews(Long courseId, int reviews, BigDecimal ratingDelta) {
+        if (courseId == null || (reviews == 0 && (ratingDelta == null || ratingDelta.signum() == 0))) {
+            return;
+        }
+        record(courseId, d -> {
+            d.reviews += reviews;
+            if (ratingDelta != null) {
+                d.ratingSum = d.ratingSum.add(ratingDelta);
+            }
+        });
+    }
+
+    /**
+     * 课程的章节或课时发生变化
+     */
+    public void markLessonsChanged(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        record(courseId, d -> d.lessonsChanged = true);
+    }
+
+    /**
+     * 将累计的增量写回数据库，失败时放回继续累计
+     */
+    @Scheduled(fixedDelayString = "${business.course.counter.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Map.Entry<Long, Delta>> pending = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Delta> drained;
+            synchronized (stripe) {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.deltas;
+                stripe.deltas = new HashMap<>();
+            }
+            pending.addAll(drained.entrySet());
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            SqlHelper.executeBatch(Course.class, BATCH_LOG, pending, batchSize, (sqlSession, entry) -> {
+                CourseMapper mapper = sqlSession.getMapper(CourseMapper.class);
+                Delta delta = entry.getValue();
+                if (delta.students != 0 || delta.reviews != 0 || delta.ratingSum.signum() != 0) {
+                    mapper.incrementCounters(entry.getKey(), delta.students, delta.reviews, delta.ratingSum.doubleValue());
+                }
+                if (delta.lessonsChanged) {
+                    mapper.refreshLessonStats(entry.getKey());
+                }
+            });
+            log.debug("课程统计增量已写回: {} 门课程", pending.size());
+        } catch (Exception e) {
+            log.warn("课程统计增量写回失败，稍后重试: {}", e.getMessage());
+            for (Map.Entry<Long, Delta> entry : pending) {
+                Stripe stripe = stripe(entry.getKey());
+                synchronized (stripe) {
+                    stripe.delta(entry.getKey()).merge(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 按ID区间分批重新计算全部课程的统计字段
+     * 每个区间重新计算期间阻塞该期间的增量记录，计算完成后丢弃区间内尚未写回的增量（已计入重新计算的结果），
+     * 避免下次刷新在新的总数上重复累加；与 flush 互斥，避免已取出但未写回的增量被重复计入
+     */
+    @Scheduled(initialDelayString = "${business.course.counter.reconcile-interval:3600000}",
+            fixedDelayString = "${business.course.counter.reconcile-interval:3600000}")
+    public synchronized void reconcile() {
+        flush();
+        try {
+            LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Course::getId).orderByDesc(Course::getId).last("limit 1");
+            Course last = courseMapper.selectOne(wrapper);
+            if (last == null) {
+                return;
+            }
+            long maxId = last.getId();
+            int updated = 0;
+            for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+                updated += reconcileRange(afterId, Math.min(afterId + batchSize, maxId));
+            }
+            log.info("课程统计对账完成: {} 门课程", updated);
+        } catch (Exception e) {
+            log.warn("课程统计对账失败: {}", e.getMessage());
+        }
+    }
+
+    private int reconcileRange(long afterId, long toId) {
+        Lock lock = reconcileLock.writeLock();
+        lock.lock();
+        try {
+            int updated = courseMapper.reconcileRange(afterId, toId);
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.deltas.keySet().removeIf(id -> id > afterId && id <= toId);
+                }
+            }
+            return updated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(Long courseId, Consumer<Delta> change) {
+        Lock lock = reconcileLock.readLock();
+        lock.lock();
+        try {
+            Stripe stripe = stripe(courseId);
+            synchronized (stripe) {
+                change.accept(stripe.delta(courseId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Stripe stripe(Long courseId) {
+        int h = courseId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private Map<Long, Delta> deltas = new HashMap<>();
+
+        private Delta delta(Long courseId) {
+            return deltas.computeIfAbsent(courseId, k -> new Delta());
+        }
+    }
+
+    private static final class Delta {
+        private int students;
+        private int reviews;
+        private BigDecimal ratingSum = BigDecimal.ZERO;
+        private boolean lessonsChanged;
+
+        private void merge(Delta other) {
+            students += other.students;
+            reviews += other.reviews;
+            ratingSum = ratingSum.add(other.ratingSum);
+            lessonsChanged |= other.lessonsChanged;
+        }
+    }
+}
@@ -3,10 +3,25 @@ package com.edu.modules.course.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.edu.modules.course.entity.CourseLesson;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 课程课时Mapper
  */
 @Mapper
 public interface CourseLessonMapper extends BaseMapper<CourseLesson> {
-}
\ No newline at end of file
+
+    /**
+     * 批量查询课时所属的课程ID（每行 lesson_id、course_id）
+     */
+    @Select("<script>SELECT l.id AS lesson_id, ch.course_id FROM tb_course_lesson l "
+            + "JOIN tb_course_chapter ch ON ch.id = l.chapter_id AND ch.deleted = 0 "
+            + "WHERE l.deleted = 0 AND l.id IN "
+            + "<foreach collection='lessonIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<Map<String, Object>> selectCourseIds(@Param("lessonIds") Collection<Long> lessonIds);
+}
@@ -3,10 +3,53 @@ package com.edu.modules.course.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.edu.modules.course.entity.Course;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 课程Mapper
+ * 统计字段的更新显式保留 update_time，避免计数变化被当作课程内容修改
  */
 @Mapper
 public interface CourseMapper extends BaseMapper<Course> {
-}
\ No newline at end of file
+
+    /**
+     * 累加学员数与评价；平均评分按原评价数加权合并（MySQL 按从左到右的顺序使用已更新的值，rating 须在 review_count 之前）
+     */
+    @Update("UPDATE tb_course SET "
+            + "rating = IF(review_count + #{reviews} > 0, "
+            + "LEAST(GREATEST((rating * review_count + #{ratingSum}) / (review_count + #{reviews}), 0), 5), 0), "
+            + "review_count = GREATEST(review_count + #{reviews}, 0), "
+            + "student_count = GREATEST(student_count + #{students}, 0), "
+            + "update_time = update_time "
+            + "WHERE id = #{courseId}")
+    int incrementCounters(@Param("courseId") Long courseId, @Param("students") int students,
+                          @Param("reviews") int reviews, @Param("ratingSum") double ratingSum);
+
+    /**
+     * 重新计算课程的课时数与总时长（分钟）
+     */
+    @Update("UPDATE tb_course c SET "
+            + "lesson_count = (SELECT COUNT(*) FROM tb_course_lesson l JOIN tb_course_chapter ch ON ch.id = l.chapter_id "
+            + "WHERE ch.course_id = c.id AND ch.status = 1 AND ch.deleted = 0 AND l.status = 1 AND l.deleted = 0), "
+            + "duration = (SELECT CEIL(COALESCE(SUM(l.duration), 0) / 60) FROM tb_course_lesson l JOIN tb_course_chapter ch ON ch.id = l.chapter_id "
+            + "WHERE ch.course_id = c.id AND ch.status = 1 AND ch.deleted = 0 AND l.status = 1 AND l.deleted = 0), "
+            + "update_time = update_time "
+            + "WHERE c.id = #{courseId}")
+    int refreshLessonStats(@Param("courseId") Long courseId);
+
+    /**
+     * 按ID区间 (afterId, toId] 重新计算全部统计字段
+     */
+    @Update("UPDATE tb_course c SET "
+            + "student_count = (SELECT COUNT(*) FROM tb_course_enrollment e WHERE e.course_id = c.id AND e.status = 1), "
+            + "review_count = (SELECT COUNT(*) FROM tb_course_review r WHERE r.course_id = c.id AND r.status = 1 AND r.deleted = 0), "
+            + "rating = (SELECT COALESCE(AVG(r.rating), 0) FROM tb_course_review r WHERE r.course_id = c.id AND r.status = 1 AND r.deleted = 0), "
+            + "lesson_count = (SELECT COUNT(*) FROM tb_course_lesson l JOIN tb_course_chapter ch ON ch.id = l.chapter_id "
+            + "WHERE ch.course_id = c.id AND ch.status = 1 AND ch.deleted = 0 AND l.status = 1 AND l.deleted = 0), "
+            + "duration = (SELECT CEIL(COALESCE(SUM(l.duration), 0) / 60) FROM tb_course_lesson l JOIN tb_course_chapter ch ON ch.id = l.chapter_id "
+            + "WHERE ch.course_id = c.id AND ch.status = 1 AND ch.deleted = 0 AND l.status = 1 AND l.deleted = 0), "
+            + "update_time = update_time "
+            + "WHERE c.id > #{afterId} AND c.id <= #{toId}")
+    int reconcileRange(@Param("afterId") long afterId, @Param("toId") long toId);
+}
@@ -0,0 +1,22 @@
+package com.edu.modules.course.ranking;
+
+/**
+ * 计入课程热度的用户行为
+ */
+public enum CourseActivity {
+
+    /**
+     * 选课
+     */
+    ENROLL,
+
+    /**
+     * 学习进度上报
+     */
+    PROGRESS,
+
+    /**
+     * 发表评价
+     */
+    REVIEW
+}
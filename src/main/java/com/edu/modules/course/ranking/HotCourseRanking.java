@@ -0,0 +1,193 @@
+package com.edu.modules.course.ranking;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.edu.modules.course.entity.Course;
+import com.edu.modules.course.mapper.CourseMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 课程热度排行
+ * 选课、学习、评价行为按权重计入热度，热度按半衰期指数衰减；
+ * 排行榜前若干名定期物化为课程列表，查询热门课程时直接返回，不访问数据库。
+ * 快速刷新只在排行ID变化时读取新上榜课程的行；课程行与按学员数补齐的列表在慢速刷新中整体重读
+ */
+@Slf4j
+@Service
+public class HotCourseRanking {
+
+    /**
+     * 每个纪元包含的半衰期数，进入下一纪元时分数乘以 2^-EPOCH_HALF_LIVES
+     */
+    static final int EPOCH_HALF_LIVES = 20;
+
+    @Autowired
+    private HotCourseStore hotCourseStore;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Value("${business.course.hot.half-life:86400000}")
+    private long halfLife;
+
+    @Value("${business.course.hot.capacity:100}")
+    private int capacity;
+
+    @Value("${business.course.hot.weights.enroll:5}")
+    private double enrollWeight;
+
+    @Value("${business.course.hot.weights.progress:1}")
+    private double progressWeight;
+
+    @Value("${business.course.hot.weights.review:3}")
+    private double reviewWeight;
+
+    private volatile List<Course> hotCourses = Collections.emptyList();
+
+    /**
+     * 以下状态仅在刷新方法（同步）中访问
+     */
+    private final Map<Long, Course> rows = new HashMap<>();
+    private List<Course> padding = Collections.emptyList();
+    private List<Long> lastIds = Collections.emptyList();
+    private boolean dirty = true;
+
+    /**
+     * 记录课程行为；热度更新失败不影响业务
+     */
+    public void record(Long courseId, CourseActivity activity) {
+        if (courseId == null || activity == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long epochLength = halfLife * EPOCH_HALF_LIVES;
+        long epoch = now / epochLength;
+        double delta = weight(activity) * Math.pow(2, (double) (now - epoch * epochLength) / halfLife);
+        try {
+            hotCourseStore.increment(epoch, courseId, delta);
+        } catch (Exception e) {
+            log.warn("课程热度更新失败: courseId={}, {}", courseId, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取热门课程
+     */
+    public List<Course> getHotCourses(int limit) {
+        List<Course> snapshot = hotCourses;
+        return new ArrayList<>(snapshot.subList(0, Math.min(limit, snapshot.size())));
+    }
+
+    /**
+     * 定期刷新热门课程列表；排行ID未变化时不访问数据库
+     */
+    @Scheduled(fixedDelayString = "${business.course.hot.refresh-interval:5000}")
+    public synchronized void refresh() {
+        try {
+            long epoch = System.currentTimeMillis() / (halfLife * EPOCH_HALF_LIVES);
+            List<Long> ids = hotCourseStore.top(epoch, capacity);
+            if (!dirty && ids.equals(lastIds)) {
+                return;
+            }
+
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                if (!rows.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            if (!missing.isEmpty()) {
+                for (Course course : courseMapper.selectBatchIds(missing)) {
+                    rows.put(course.getId(), course);
+                }
+            }
+            rows.keySet().retainAll(new HashSet<>(ids));
+
+            List<Course> result = new ArrayList<>(capacity);
+            for (Long id : ids) {
+                Course course = rows.get(id);
+                if (course != null && Integer.valueOf(1).equals(course.getStatus())) {
+                    result.add(course);
+                }
+            }
+            // 排行不足时按学员数补齐
+            Set<Long> ranked = new HashSet<>(ids);
+            for (Course course : padding) {
+                if (result.size() >= capacity) {
+                    break;
+                }
+                if (!ranked.contains(course.getId())) {
+                    result.add(course);
+                }
+            }
+            hotCourses = Collections.unmodifiableList(result);
+            lastIds = ids;
+            dirty = false;
+        } catch (Exception e) {
+            log.warn("热门课程刷新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 慢速刷新：重读上榜课程的行（学员数、评分等统计字段），并重新查询按学员数补齐的列表
+     */
+    @Scheduled(fixedDelayString = "${business.course.hot.padding-refresh-interval:300000}")
+    public synchronized void refreshRows() {
+        try {
+            LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(Course::getStatus, 1)
+                    .orderByDesc(Course::getStudentCount)
+                    .last("limit " + capacity);
+            padding = courseMapper.selectList(wrapper);
+            rows.clear();
+            dirty = true;
+        } catch (Exception e) {
+            log.warn("热门课程补齐列表刷新失败: {}", e.getMessage());
+        }
+        refresh();
+    }
+
+    /**
+     * 课程信息或状态变更后，下次刷新时重读该课程（仅本节点，其他节点在慢速刷新时更新）
+     */
+    public synchronized void invalidate(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        rows.remove(courseId);
+        for (Course course : padding) {
+            if (course.getId().equals(courseId)) {
+                padding = new ArrayList<>(padding);
+                padding.removeIf(c -> c.getId().equals(courseId));
+                break;
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * 从一个纪元进入另一个纪元时分数的衰减系数
+     */
+    static double carryOver(long fromEpoch, long toEpoch) {
+        return Math.pow(2, -(double) EPOCH_HALF_LIVES * (toEpoch - fromEpoch));
+    }
+
+    private double weight(CourseActivity activity) {
+        switch (activity) {
+            case ENROLL: return enrollWeight;
+            case REVIEW: return reviewWeight;
+            default: return progressWeight;
+        }
+    }
+}
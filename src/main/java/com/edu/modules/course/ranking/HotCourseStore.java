@@ -0,0 +1,23 @@
+package com.edu.modules.course.ranking;
+
+import java.util.List;
+
+/**
+ * 课程热度存储
+ * 分数采用前向衰减：越晚发生的行为增量越大，排序与按当前时间衰减后的分数一致，
+ * 因此无需定期重算全部分数。为避免分数无限增长，按纪元划分，进入新纪元时旧分数乘以衰减系数后带入
+ */
+public interface HotCourseStore {
+
+    /**
+     * 增加课程热度
+     *
+     * @param epoch 当前纪元
+     */
+    void increment(long epoch, Long courseId, double delta);
+
+    /**
+     * 获取热度最高的课程ID（降序）
+     */
+    List<Long> top(long epoch, int limit);
+}
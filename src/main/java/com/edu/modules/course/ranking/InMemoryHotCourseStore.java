@@ -0,0 +1,92 @@
+package com.edu.modules.course.ranking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 本机热度存储（单节点部署）
+ * 分数表与按分数排序的集合同步维护，更新 O(log n)，取前K个 O(K)
+ */
+@Component
+@ConditionalOnProperty(prefix = "business.course.hot", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryHotCourseStore implements HotCourseStore {
+
+    @Value("${business.course.hot.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>();
+    private long epoch = -1;
+
+    @Override
+    public synchronized void increment(long epoch, Long courseId, double delta) {
+        rollover(epoch);
+        Double old = scores.get(courseId);
+        if (old != null) {
+            ranking.remove(new Entry(courseId, old));
+        }
+        double score = (old != null ? old : 0) + delta;
+        scores.put(courseId, score);
+        ranking.add(new Entry(courseId, score));
+
+        while (ranking.size() > maxEntries) {
+            Entry last = ranking.pollLast();
+            scores.remove(last.courseId);
+        }
+    }
+
+    @Override
+    public synchronized List<Long> top(long epoch, int limit) {
+        rollover(epoch);
+        List<Long> result = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<Entry> it = ranking.iterator();
+        while (it.hasNext() && result.size() < limit) {
+            result.add(it.next().courseId);
+        }
+        return result;
+    }
+
+    private void rollover(long newEpoch) {
+        if (newEpoch <= epoch) {
+            return;
+        }
+        if (epoch >= 0 && !scores.isEmpty()) {
+            double factor = HotCourseRanking.carryOver(epoch, newEpoch);
+            List<Entry> entries = new ArrayList<>(ranking);
+            ranking.clear();
+            scores.clear();
+            for (Entry entry : entries) {
+                double score = entry.score * factor;
+                if (score > 0) {
+                    scores.put(entry.courseId, score);
+                    ranking.add(new Entry(entry.courseId, score));
+                }
+            }
+        }
+        epoch = newEpoch;
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final Long courseId;
+        private final double score;
+
+        private Entry(Long courseId, double score) {
+            this.courseId = courseId;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = Double.compare(o.score, score);
+            return c != 0 ? c : courseId.compareTo(o.courseId);
+        }
+    }
+}
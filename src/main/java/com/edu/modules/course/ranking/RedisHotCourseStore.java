@@ -0,0 +1,76 @@
+package com.edu.modules.course.ranking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis热度存储（多节点共享）
+ * 每个纪元一个有序集合；首个进入新纪元的节点负责把上一纪元的分数按衰减系数并入
+ */
+@Component
+@ConditionalOnProperty(prefix = "business.course.hot", name = "store", havingValue = "redis")
+public class RedisHotCourseStore implements HotCourseStore {
+
+    private static final String KEY_PREFIX = "course:hot:";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${business.course.hot.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${business.course.hot.half-life:86400000}")
+    private long halfLife;
+
+    private volatile long seededEpoch = -1;
+
+    @Override
+    public void increment(long epoch, Long courseId, double delta) {
+        seed(epoch);
+        redisTemplate.opsForZSet().incrementScore(KEY_PREFIX + epoch, String.valueOf(courseId), delta);
+    }
+
+    @Override
+    public List<Long> top(long epoch, int limit) {
+        seed(epoch);
+        String key = KEY_PREFIX + epoch;
+        redisTemplate.opsForZSet().removeRange(key, 0, -(maxEntries + 1L));
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(key, 0, limit - 1);
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            result.add(Long.valueOf(id));
+        }
+        return result;
+    }
+
+    private void seed(long epoch) {
+        if (epoch == seededEpoch) {
+            return;
+        }
+        String key = KEY_PREFIX + epoch;
+        long epochLength = halfLife * HotCourseRanking.EPOCH_HALF_LIVES;
+        Boolean first = redisTemplate.opsForValue().setIfAbsent(key + ":seeded", "1", epochLength * 2, TimeUnit.MILLISECONDS);
+        if (Boolean.TRUE.equals(first)) {
+            String previous = KEY_PREFIX + (epoch - 1);
+            redisTemplate.opsForZSet().unionAndStore(key, Collections.singletonList(previous), key,
+                    RedisZSetCommands.Aggregate.SUM,
+                    RedisZSetCommands.Weights.of(1, HotCourseRanking.carryOver(epoch - 1, epoch)));
+            // 仍停留在上一纪元的节点可能还会写入，保留一段时间后过期
+            redisTemplate.expire(previous, 1, TimeUnit.HOURS);
+        }
+        seededEpoch = epoch;
+    }
+}
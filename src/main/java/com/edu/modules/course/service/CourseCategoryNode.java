@@ -0,0 +1,19 @@
+package com.edu.modules.course.service;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程分类树节点
+ */
+@Data
+public class CourseCategoryNode {
+
+    private Long id;
+    private String name;
+    private Long parentId;
+    private Integer sortOrder;
+    private List<CourseCategoryNode> children = new ArrayList<>();
+}
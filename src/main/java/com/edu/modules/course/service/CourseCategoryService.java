@@ -0,0 +1,37 @@
+package com.edu.modules.course.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.modules.course.entity.CourseCategory;
+
+import java.util.List;
+
+/**
+ * 课程分类服务接口
+ */
+public interface CourseCategoryService extends IService<CourseCategory> {
+
+    /**
+     * 创建分类
+     */
+    CourseCategory createCategory(CourseCategory category);
+
+    /**
+     * 更新分类
+     */
+    boolean updateCategory(CourseCategory category);
+
+    /**
+     * 删除分类（存在子分类时不允许删除）
+     */
+    boolean deleteCategory(Long categoryId);
+
+    /**
+     * 获取启用的分类树
+     */
+    List<CourseCategoryNode> getCategoryTree();
+
+    /**
+     * 获取分类及其全部启用的子孙分类ID；分类不存在或已禁用时返回空列表
+     */
+    List<Long> getSubtreeIds(Long categoryId);
+}
@@ -0,0 +1,46 @@
+package com.edu.modules.course.service;
+
+import com.edu.modules.course.entity.Course;
+import com.edu.modules.exam.entity.Exam;
+import com.edu.modules.review.service.CourseReviewStats;
+import com.edu.modules.user.entity.User;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程详情页聚合数据
+ * 除课程本身外的各部分并行获取，超时或失败的部分为null，并记录在 degraded 中
+ */
+@Data
+public class CourseDetail {
+
+    private Course course;
+
+    /**
+     * 讲师资料（不含密码）
+     */
+    private User instructor;
+
+    private CourseReviewStats reviewStats;
+
+    /**
+     * 学员数
+     */
+    private Integer enrollmentCount;
+
+    /**
+     * 当前用户是否已选课
+     */
+    private Boolean enrolled;
+
+    private List<Exam> exams;
+
+    private CourseOutline outline;
+
+    /**
+     * 未能按时返回的部分
+     */
+    private List<String> degraded = new ArrayList<>();
+}
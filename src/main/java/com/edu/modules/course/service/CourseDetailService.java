@@ -0,0 +1,14 @@
+package com.edu.modules.course.service;
+
+/**
+ * 课程详情聚合服务接口
+ */
+public interface CourseDetailService {
+
+    /**
+     * 获取课程详情页数据
+     *
+     * @param userId 当前用户ID，未登录时为null
+     */
+    CourseDetail getCourseDetail(Long courseId, Long userId);
+}
@@ -0,0 +1,41 @@
+package com.edu.modules.course.service;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 课程分面筛选条件（同一分面内多选为或，分面之间为与）
+ */
+@Data
+public class CourseFacetQuery {
+
+    /**
+     * 分类ID（包含全部子孙分类）
+     */
+    private Long categoryId;
+
+    /**
+     * 难度等级：1-初级，2-中级，3-高级
+     */
+    private List<Integer> levels;
+
+    /**
+     * 价格区间标签，如 0-100、1000+
+     */
+    private List<String> priceBands;
+
+    /**
+     * 评分区间标签，如 4-4.5、4.5+
+     */
+    private List<String> ratingBands;
+
+    /**
+     * 是否免费，为空表示不限
+     */
+    private Boolean free;
+
+    private Integer page;
+
+    private Integer size;
+}
@@ -0,0 +1,34 @@
+package com.edu.modules.course.service;
+
+import com.edu.modules.course.entity.Course;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程分面筛选结果
+ */
+@Data
+public class CourseFacetResult {
+
+    /**
+     * 命中课程总数
+     */
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    /**
+     * 当前页课程（按创建时间倒序）
+     */
+    private List<Course> records;
+
+    /**
+     * 分面计数：分面（category/level/price/rating/free） -> 取值 -> 课程数；
+     * 某分面的计数不受该分面自身筛选条件影响
+     */
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -3,7 +3,9 @@ package com.edu.modules.course.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.edu.modules.course.entity.CourseLesson;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 课程课时服务接口
@@ -35,6 +37,26 @@ public interface CourseLessonService extends IService<CourseLesson> {
      */
     List<CourseLesson> getLessonsByCourseId(Long courseId);
 
+    /**
+     * 批量获取多个章节的课时，按章节、排序号排列
+     */
+    List<CourseLesson> getLessonsByChapterIds(List<Long> chapterIds);
+
+    /**
+     * 批量获取课时时长（秒），不存在的课时不在结果中
+     */
+    Map<Long, Integer> getLessonDurations(Collection<Long> lessonIds);
+
+    /**
+     * 获取课时所属的课程ID
+     */
+    Long getCourseIdByLessonId(Long lessonId);
+
+    /**
+     * 批量获取课时所属的课程ID（未缓存的课时以一次查询补齐），不存在的课时不在结果中
+     */
+    Map<Long, Long> getCourseIdsByLessonIds(Collection<Long> lessonIds);
+
     /**
      * 批量更新课时排序
      */
@@ -0,0 +1,45 @@
+package com.edu.modules.course.service;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程大纲（章节-课时树，不含视频地址）
+ */
+@Data
+public class CourseOutline {
+
+    private Long courseId;
+
+    /**
+     * 课时总数
+     */
+    private int lessonCount;
+
+    /**
+     * 课时总时长（秒）
+     */
+    private int totalDuration;
+
+    private List<Chapter> chapters = new ArrayList<>();
+
+    @Data
+    public static class Chapter {
+        private Long id;
+        private String title;
+        private String description;
+        private Integer sortOrder;
+        private List<Lesson> lessons = new ArrayList<>();
+    }
+
+    @Data
+    public static class Lesson {
+        private Long id;
+        private String title;
+        private Integer duration;
+        private Integer sortOrder;
+        private Integer isFree;
+    }
+}
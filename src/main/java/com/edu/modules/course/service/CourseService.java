@@ -1,6 +1,7 @@
 package com.edu.modules.course.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.course.entity.Course;
 
 import java.util.List;
@@ -50,8 +51,43 @@ public interface CourseService extends IService<Course> {
      */
     List<Course> getHotCourses(Integer limit);
 
+    /**
+     * 获取课程大纲（章节-课时树）的JSON响应
+     */
+    byte[] getCourseOutlineJson(Long courseId);
+
+    /**
+     * 获取课程大纲（缓存中的共享对象，只读）
+     */
+    CourseOutline getCourseOutline(Long courseId);
+
     /**
      * 搜索课程
      */
     List<Course> searchCourses(String keyword);
-}
\ No newline at end of file
+
+    /**
+     * 当前用户能否查看该讲师的未发布课程（管理员或讲师本人）
+     */
+    boolean canViewUnpublished(Long instructorId);
+
+    /**
+     * 当前用户能否查看该状态的课程（已发布，或当前用户可查看未发布课程）
+     */
+    boolean canView(Integer status, Long instructorId);
+
+    /**
+     * 校验课程对当前用户可见（只读取状态与讲师列），否则抛出课程不存在
+     */
+    void checkCourseVisible(Long courseId);
+
+    /**
+     * 游标分页查询课程（按创建时间倒序）
+     */
+    CursorPage<Course> pageCourses(Long instructorId, Long categoryId, Integer status, String cursor, Integer size);
+
+    /**
+     * 分面筛选已发布课程，返回当前页课程与各分面计数
+     */
+    CourseFacetResult browseCourses(CourseFacetQuery query);
+}
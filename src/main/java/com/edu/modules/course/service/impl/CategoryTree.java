@@ -0,0 +1,99 @@
+package com.edu.modules.course.service.impl;
+
+import com.edu.modules.course.entity.CourseCategory;
+import com.edu.modules.course.service.CourseCategoryNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类树快照（不可变）
+ * 只包含启用的分类；禁用分类的整棵子树不可见。每个分类的子树ID集合在构建时预先计算
+ */
+class CategoryTree {
+
+    private static final Comparator<CourseCategory> ORDER = Comparator
+            .comparing((CourseCategory c) -> c.getSortOrder() != null ? c.getSortOrder() : 0)
+            .thenComparing(CourseCategory::getId);
+
+    private final List<CourseCategoryNode> roots;
+    private final Map<Long, List<Long>> subtreeIds;
+
+    CategoryTree(List<CourseCategory> categories) {
+        Map<Long, CourseCategory> byId = new HashMap<>();
+        Map<Long, List<CourseCategory>> children = new HashMap<>();
+        for (CourseCategory category : categories) {
+            byId.put(category.getId(), category);
+        }
+        List<CourseCategory> rootCategories = new ArrayList<>();
+        for (CourseCategory category : categories) {
+            Long parentId = category.getParentId();
+            if (parentId == null || parentId == 0 || !byId.containsKey(parentId)) {
+                rootCategories.add(category);
+            } else {
+                children.computeIfAbsent(parentId, k -> new ArrayList<>()).add(category);
+            }
+        }
+
+        Map<Long, List<Long>> subtrees = new HashMap<>();
+        List<CourseCategoryNode> rootNodes = new ArrayList<>();
+        rootCategories.sort(ORDER);
+        for (CourseCategory root : rootCategories) {
+            if (isEnabled(root)) {
+                rootNodes.add(build(root, children, subtrees, new ArrayList<>()));
+            }
+        }
+        this.roots = Collections.unmodifiableList(rootNodes);
+        this.subtreeIds = subtrees;
+    }
+
+    List<CourseCategoryNode> getRoots() {
+        return roots;
+    }
+
+    List<Long> getSubtreeIds(Long categoryId) {
+        List<Long> ids = subtreeIds.get(categoryId);
+        return ids != null ? Collections.unmodifiableList(ids) : Collections.emptyList();
+    }
+
+    /**
+     * 深度优先构建节点，同时把当前节点ID加入所有祖先的子树集合
+     */
+    private static CourseCategoryNode build(CourseCategory category, Map<Long, List<CourseCategory>> children,
+                                            Map<Long, List<Long>> subtrees, List<List<Long>> ancestors) {
+        CourseCategoryNode node = new CourseCategoryNode();
+        node.setId(category.getId());
+        node.setName(category.getName());
+        node.setParentId(category.getParentId());
+        node.setSortOrder(category.getSortOrder());
+
+        List<Long> own = new ArrayList<>();
+        own.add(category.getId());
+        for (List<Long> ancestor : ancestors) {
+            ancestor.add(category.getId());
+        }
+        subtrees.put(category.getId(), own);
+
+        List<CourseCategory> list = children.get(category.getId());
+        if (list != null) {
+            list.sort(ORDER);
+            ancestors.add(own);
+            for (CourseCategory child : list) {
+                // 防御数据中的环：已出现在子树集合中的节点不再展开
+                if (isEnabled(child) && !subtrees.containsKey(child.getId())) {
+                    node.getChildren().add(build(child, children, subtrees, ancestors));
+                }
+            }
+            ancestors.remove(ancestors.size() - 1);
+        }
+        return node;
+    }
+
+    private static boolean isEnabled(CourseCategory category) {
+        return Integer.valueOf(1).equals(category.getStatus());
+    }
+}
@@ -0,0 +1,141 @@
+package com.edu.modules.course.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import com.edu.modules.course.entity.CourseCategory;
+import com.edu.modules.course.mapper.CourseCategoryMapper;
+import com.edu.modules.course.service.CourseCategoryNode;
+import com.edu.modules.course.service.CourseCategoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * 课程分类服务实现
+ * 分类树整体缓存在内存中，分类变更后重建；多节点部署时依赖定时刷新收敛
+ */
+@Slf4j
+@Service
+public class CourseCategoryServiceImpl extends ServiceImpl<CourseCategoryMapper, CourseCategory>
+        implements CourseCategoryService {
+
+    private volatile CategoryTree tree;
+
+    @Override
+    public CourseCategory createCategory(CourseCategory category) {
+        if (category == null || !StringUtils.hasText(category.getName())) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "分类名称不能为空");
+        }
+        if (category.getParentId() == null) {
+            category.setParentId(0L);
+        }
+        if (category.getParentId() != 0 && getById(category.getParentId()) == null) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "父分类不存在");
+        }
+        if (category.getSortOrder() == null) {
+            category.setSortOrder(0);
+        }
+        if (category.getStatus() == null) {
+            category.setStatus(1); // 默认启用
+        }
+
+        boolean success = save(category);
+        if (!success) {
+            throw new BusinessException("创建分类失败");
+        }
+
+        refresh();
+        log.info("分类创建成功: name={}, id={}", category.getName(), category.getId());
+        return category;
+    }
+
+    @Override
+    public boolean updateCategory(CourseCategory category) {
+        if (category == null || category.getId() == null) {
+            return false;
+        }
+        Long parentId = category.getParentId();
+        if (parentId != null && parentId != 0) {
+            // 父分类不能是自身或自身的子孙
+            Long current = parentId;
+            for (int depth = 0; current != null && current != 0; depth++) {
+                if (current.equals(category.getId()) || depth > 64) {
+                    throw new BusinessException(ResultCode.VALIDATION_ERROR, "不能将分类移动到自身或其子分类下");
+                }
+                CourseCategory parent = getById(current);
+                if (parent == null) {
+                    throw new BusinessException(ResultCode.VALIDATION_ERROR, "父分类不存在");
+                }
+                current = parent.getParentId();
+            }
+        }
+
+        boolean success = updateById(category);
+        if (success) {
+            refresh();
+            log.info("分类更新成功: id={}", category.getId());
+        }
+        return success;
+    }
+
+    @Override
+    public boolean deleteCategory(Long categoryId) {
+        if (categoryId == null) {
+            return false;
+        }
+
+        LambdaQueryWrapper<CourseCategory> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(CourseCategory::getParentId, categoryId);
+        if (count(wrapper) > 0) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "请先删除子分类");
+        }
+
+        boolean success = removeById(categoryId);
+        if (success) {
+            refresh();
+            log.info("分类删除成功: id={}", categoryId);
+        }
+        return success;
+    }
+
+    @Override
+    public List<CourseCategoryNode> getCategoryTree() {
+        return tree().getRoots();
+    }
+
+    @Override
+    public List<Long> getSubtreeIds(Long categoryId) {
+        return tree().getSubtreeIds(categoryId);
+    }
+
+    /**
+     * 从数据库重建分类树
+     */
+    @Scheduled(fixedDelayString = "${business.course.category.refresh-interval:60000}")
+    public void refresh() {
+        try {
+            this.tree = new CategoryTree(list());
+        } catch (Exception e) {
+            log.warn("分类树刷新失败: {}", e.getMessage());
+        }
+    }
+
+    private CategoryTree tree() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                current = tree;
+                if (current == null) {
+                    current = new CategoryTree(list());
+                    tree = current;
+                }
+            }
+        }
+        return current;
+    }
+}
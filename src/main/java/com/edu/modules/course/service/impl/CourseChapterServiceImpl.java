@@ -1,18 +1,25 @@
 package com.edu.modules.course.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.utils.SortOrderUtils;
+import com.edu.modules.course.counter.CourseCounterAggregator;
 import com.edu.modules.course.entity.CourseChapter;
 import com.edu.modules.course.mapper.CourseChapterMapper;
 import com.edu.modules.course.service.CourseChapterService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 课程章节服务实现
@@ -22,6 +29,12 @@ import java.util.List;
 public class CourseChapterServiceImpl extends ServiceImpl<CourseChapterMapper, CourseChapter>
         implements CourseChapterService {
 
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+
+    @Autowired
+    private CourseCounterAggregator courseCounterAggregator;
+
     @Override
     public CourseChapter createChapter(CourseChapter chapter) {
         // 参数校验
@@ -45,6 +58,7 @@ public class CourseChapterServiceImpl extends ServiceImpl<CourseChapterMapper, C
             throw new BusinessException("创建章节失败");
         }
 
+        courseOutlineCache.evict(chapter.getCourseId());
         log.info("章节创建成功: title={}, courseId={}", chapter.getTitle(), chapter.getCourseId());
         return chapter;
     }
@@ -55,8 +69,13 @@ public class CourseChapterServiceImpl extends ServiceImpl<CourseChapterMapper, C
             return false;
         }
 
+        CourseChapter existing = getById(chapter.getId());
         boolean success = updateById(chapter);
         if (success) {
+            if (existing != null) {
+                lessonsChanged(existing.getCourseId());
+            }
+            lessonsChanged(chapter.getCourseId());
             log.info("章节更新成功: id={}", chapter.getId());
         }
         return success;
@@ -68,8 +87,12 @@ public class CourseChapterServiceImpl extends ServiceImpl<CourseChapterMapper, C
             return false;
         }
 
+        CourseChapter existing = getById(chapterId);
         boolean success = removeById(chapterId);
         if (success) {
+            if (existing != null) {
+                lessonsChanged(existing.getCourseId());
+            }
             log.info("章节删除成功: id={}", chapterId);
         }
         return success;
@@ -90,22 +113,38 @@ public class CourseChapterServiceImpl extends ServiceImpl<CourseChapterMapper, C
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateChapterSort(List<Long> chapterIds) {
         if (chapterIds == null || chapterIds.isEmpty()) {
             return false;
         }
 
-        boolean success = true;
-        for (int i = 0; i < chapterIds.size(); i++) {
-            CourseChapter chapter = new CourseChapter();
-            chapter.setId(chapterIds.get(i));
-            chapter.setSortOrder(i);
-            success = success && updateById(chapter);
+        // 单条 CASE 语句完成重排，任一章节不存在则整体回滚
+        LambdaUpdateWrapper<CourseChapter> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.setSql(SortOrderUtils.sortOrderCase(chapterIds))
+                .in(CourseChapter::getId, chapterIds);
+        if (baseMapper.update(null, wrapper) != chapterIds.size()) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "章节不存在或已删除");
         }
 
-        if (success) {
-            log.info("章节排序更新成功");
+        Set<Long> courseIds = new HashSet<>();
+        for (CourseChapter chapter : listByIds(chapterIds)) {
+            courseIds.add(chapter.getCourseId());
         }
-        return success;
+        courseOutlineCache.evictAll(courseIds);
+
+        log.info("章节排序更新成功: count={}", chapterIds.size());
+        return true;
+    }
+
+    /**
+     * 章节显示状态或归属变化会影响课程的课时统计
+     */
+    private void lessonsChanged(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        courseOutlineCache.evict(courseId);
+        courseCounterAggregator.markLessonsChanged(courseId);
     }
-}
\ No newline at end of file
+}
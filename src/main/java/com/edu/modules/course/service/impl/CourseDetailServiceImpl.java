@@ -0,0 +1,166 @@
+package com.edu.modules.course.service.impl;
+
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import com.edu.modules.course.entity.Course;
+import com.edu.modules.course.service.CourseDetail;
+import com.edu.modules.course.service.CourseDetailService;
+import com.edu.modules.course.service.CourseOutline;
+import com.edu.modules.course.service.CourseService;
+import com.edu.modules.exam.entity.Exam;
+import com.edu.modules.exam.service.ExamService;
+import com.edu.modules.learning.service.CourseEnrollmentService;
+import com.edu.modules.review.service.CourseReviewService;
+import com.edu.modules.review.service.CourseReviewStats;
+import com.edu.modules.user.entity.User;
+import com.edu.modules.user.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程详情聚合服务实现
+ * 先按主键读取课程，其余相互独立的部分在有界线程池中并行获取，整体耗时取决于最慢的部分；
+ * 所有部分共享同一截止时间，到期未返回或线程池已满的部分降级为null，不影响其他部分；
+ * 到期未返回的任务被取消（排队中的不再执行，执行中的被中断），避免慢依赖持续占满线程池
+ */
+@Slf4j
+@Service
+public class CourseDetailServiceImpl implements CourseDetailService {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseReviewService courseReviewService;
+
+    @Autowired
+    private CourseEnrollmentService courseEnrollmentService;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private TaskDecorator authContextTaskDecorator;
+
+    @Value("${business.course.detail.pool-size:16}")
+    private int poolSize;
+
+    @Value("${business.course.detail.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${business.course.detail.timeout:800}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "course-detail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 线程池与队列已满时拒绝，不回退到请求线程执行（CallerRuns 会让请求线程被慢依赖拖住）
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @Override
+    public CourseDetail getCourseDetail(Long courseId, Long userId) {
+        if (courseId == null) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "课程ID不能为空");
+        }
+        Course course = courseService.getById(courseId);
+        if (course == null || (!Integer.valueOf(1).equals(course.getStatus())
+                && !courseService.canViewUnpublished(course.getInstructorId()))) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "课程不存在");
+        }
+
+        CourseDetail detail = new CourseDetail();
+        detail.setCourse(course);
+        detail.setEnrollmentCount(course.getStudentCount());
+
+        // 并行获取，结果在当前线程写入，超时后才完成的部分被丢弃
+        Future<User> instructor = submit(() -> userService.getProfile(course.getInstructorId()));
+        Future<CourseReviewStats> reviewStats = submit(() -> courseReviewService.getCourseReviewStats(courseId));
+        Future<List<Exam>> exams = submit(() -> examService.getExamsByCourseId(courseId));
+        Future<CourseOutline> outline = submit(() -> courseService.getCourseOutline(courseId));
+        Future<Boolean> enrolled = userId != null
+                ? submit(() -> courseEnrollmentService.isEnrolled(userId, courseId))
+                : CompletableFuture.completedFuture(null);
+
+        long deadline = System.currentTimeMillis() + timeout;
+        detail.setInstructor(await(instructor, deadline, "instructor", detail));
+        detail.setReviewStats(await(reviewStats, deadline, "reviewStats", detail));
+        detail.setExams(await(exams, deadline, "exams", detail));
+        detail.setOutline(await(outline, deadline, "outline", detail));
+        detail.setEnrolled(await(enrolled, deadline, "enrolled", detail));
+        return detail;
+    }
+
+    /**
+     * 提交一个并行获取的部分（携带当前认证信息）；线程池已满时返回已失败的结果
+     */
+    private <T> Future<T> submit(Callable<T> loader) {
+        FutureTask<T> task = new FutureTask<>(loader);
+        try {
+            executor.execute(authContextTaskDecorator.decorate(task));
+            return task;
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * 在截止时间前等待结果，超时或失败时记录降级并返回null；超时的任务被取消
+     */
+    private <T> T await(Future<T> future, long deadline, String part, CourseDetail detail) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("课程详情部分数据超时: courseId={}, part={}", detail.getCourse().getId(), part);
+        } catch (CancellationException e) {
+            log.warn("课程详情部分数据已取消: courseId={}, part={}", detail.getCourse().getId(), part);
+        } catch (ExecutionException e) {
+            log.warn("课程详情部分数据获取失败: courseId={}, part={}, {}",
+                    detail.getCourse().getId(), part, e.getCause().toString());
+        }
+        detail.getDegraded().add(part);
+        return null;
+    }
+}
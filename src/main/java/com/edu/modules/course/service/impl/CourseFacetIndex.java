@@ -0,0 +1,397 @@
+package com.edu.modules.course.service.impl;
+
+import com.edu.modules.course.entity.Course;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 课程分面索引（仅包含已发布课程）
+ * 每门课程分配一个序号，每个分面取值对应一个位图；筛选为位图的与/或运算，
+ * 各分面的计数为该取值位图与“其他分面筛选结果”的交集基数（同一分面内多选为或）。
+ * 序号按 (创建时间, ID) 升序分配，按创建时间倒序分页即从高位向低位遍历位图，无需排序；
+ * 增量加入的课程若打乱顺序（如旧课程重新发布），在写锁内按现有数据重排序号
+ */
+@Component
+public class CourseFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String LEVEL = "level";
+    public static final String PRICE = "price";
+    public static final String RATING = "rating";
+    public static final String FREE = "free";
+
+    private static final String[] FACETS = {CATEGORY, LEVEL, PRICE, RATING, FREE};
+    private static final Course REMOVED = new Course();
+
+    @Value("${business.course.facet.price-bands:100,300,1000}")
+    private BigDecimal[] priceBands;
+
+    @Value("${business.course.facet.rating-bands:3,4,4.5}")
+    private BigDecimal[] ratingBands;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+
+    /**
+     * 重建期间的增量变更，重建完成后补入新索引
+     */
+    private Map<Long, Course> pending;
+    private volatile boolean ready;
+
+    /**
+     * 索引或更新课程；未发布的课程从索引中移除
+     */
+    public void index(Course course) {
+        if (course == null || course.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(course.getId(), course);
+            }
+            apply(state, course);
+            if (!state.ordered) {
+                state = state.reordered();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(courseId, REMOVED);
+            }
+            state.remove(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 以全量数据重建索引
+     * 先开始记录增量变更再加载数据，新索引在锁外构建，切换时补入加载期间的变更
+     */
+    public synchronized void rebuild(Supplier<? extends Collection<Course>> loader) {
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            List<Course> courses = new ArrayList<>(loader.get());
+            courses.sort(Comparator.comparingLong(CourseFacetIndex::createTimeOf).thenComparing(Course::getId));
+            for (Course course : courses) {
+                apply(rebuilt, course);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Course> entry : pending.entrySet()) {
+                if (entry.getValue() == REMOVED) {
+                    rebuilt.remove(entry.getKey());
+                } else {
+                    apply(rebuilt, entry.getValue());
+                }
+            }
+            pending = null;
+            state = rebuilt.ordered ? rebuilt : rebuilt.reordered();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 按分面筛选
+     *
+     * @param filters 分面 -> 选中的取值（同一分面内为或，分面之间为与），未出现的分面不筛选，空集合不命中任何课程
+     * @return 命中课程（按创建时间倒序的 offset/limit 片段）与各分面计数
+     */
+    public Hits query(Map<String, ? extends Collection<String>> filters, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            State current = state;
+            Map<String, BitSet> selections = new HashMap<>();
+            for (String facet : FACETS) {
+                Collection<String> values = filters.get(facet);
+                if (values != null) {
+                    BitSet selected = new BitSet();
+                    Map<String, BitSet> byValue = current.facets.get(facet);
+                    for (String value : values) {
+                        BitSet bits = byValue.get(value);
+                        if (bits != null) {
+                            selected.or(bits);
+                        }
+                    }
+                    selections.put(facet, selected);
+                }
+            }
+
+            BitSet matched = (BitSet) current.live.clone();
+            for (BitSet selected : selections.values()) {
+                matched.and(selected);
+            }
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                BitSet base = (BitSet) current.live.clone();
+                for (Map.Entry<String, BitSet> entry : selections.entrySet()) {
+                    if (!entry.getKey().equals(facet)) {
+                        base.and(entry.getValue());
+                    }
+                }
+                Map<String, Integer> facetCounts = new LinkedHashMap<>();
+                for (Map.Entry<String, BitSet> entry : current.facets.get(facet).entrySet()) {
+                    BitSet bits = (BitSet) entry.getValue().clone();
+                    bits.and(base);
+                    int count = bits.cardinality();
+                    if (count > 0) {
+                        facetCounts.put(entry.getKey(), count);
+                    }
+                }
+                counts.put(facet, facetCounts);
+            }
+
+            // 序号按创建时间升序，从高位向低位遍历即为倒序
+            int total = matched.cardinality();
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+            int skipped = 0;
+            for (int i = matched.previousSetBit(current.next - 1); i >= 0 && page.size() < limit;
+                 i = matched.previousSetBit(i - 1)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(current.courseIds[i]);
+                }
+            }
+            return new Hits(total, page, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(State target, Course course) {
+        if (!Integer.valueOf(1).equals(course.getStatus())) {
+            target.remove(course.getId());
+            return;
+        }
+        BigDecimal price = course.getPrice() != null ? course.getPrice() : BigDecimal.ZERO;
+        String[] values = {
+                course.getCategoryId() != null ? String.valueOf(course.getCategoryId()) : null,
+                course.getLevel() != null ? String.valueOf(course.getLevel()) : null,
+                band(price, priceBands),
+                band(course.getRating() != null ? course.getRating() : BigDecimal.ZERO, ratingBands),
+                price.signum() > 0 ? "paid" : "free"
+        };
+        target.put(course.getId(), createTimeOf(course), values);
+    }
+
+    private static long createTimeOf(Course course) {
+        return course.getCreateTime() != null
+                ? course.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    /**
+     * 区间标签：边界 100,300 得到 0-100、100-300、300+，区间左闭右开
+     */
+    static String band(BigDecimal value, BigDecimal[] bounds) {
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : bounds) {
+            if (value.compareTo(bound) < 0) {
+                return label(lower) + "-" + label(bound);
+            }
+            lower = bound;
+        }
+        return label(lower) + "+";
+    }
+
+    /**
+     * 解析区间标签为 [下界, 上界)，上界为null表示不设上限；标签无效时返回null
+     */
+    static BigDecimal[] bandRange(String label) {
+        try {
+            if (label.endsWith("+")) {
+                return new BigDecimal[]{new BigDecimal(label.substring(0, label.length() - 1)), null};
+            }
+            int dash = label.indexOf('-', 1);
+            if (dash < 0) {
+                return null;
+            }
+            return new BigDecimal[]{new BigDecimal(label.substring(0, dash)), new BigDecimal(label.substring(dash + 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String label(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 查询结果
+     */
+    public static final class Hits {
+        private final int total;
+        private final List<Long> courseIds;
+        private final Map<String, Map<String, Integer>> counts;
+
+        private Hits(int total, List<Long> courseIds, Map<String, Map<String, Integer>> counts) {
+            this.total = total;
+            this.courseIds = Collections.unmodifiableList(courseIds);
+            this.counts = counts;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Long> getCourseIds() {
+            return courseIds;
+        }
+
+        public Map<String, Map<String, Integer>> getCounts() {
+            return counts;
+        }
+    }
+
+    private static final class State {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, Map<String, BitSet>> facets = new HashMap<>();
+        private long[] courseIds = new long[64];
+        private long[] createTimes = new long[64];
+        private String[][] values = new String[64][];
+        private int next;
+
+        /**
+         * 序号是否仍按 (创建时间, ID) 升序
+         */
+        private boolean ordered = true;
+
+        private State() {
+            for (String facet : FACETS) {
+                facets.put(facet, new HashMap<>());
+            }
+        }
+
+        private void put(Long courseId, long createTime, String[] newValues) {
+            Integer ordinal = ordinals.get(courseId);
+            if (ordinal == null) {
+                // 已删除课程的序号不复用，空位在重排或重建时回收
+                ordinal = next++;
+                if (ordinal >= courseIds.length) {
+                    int capacity = courseIds.length * 2;
+                    courseIds = Arrays.copyOf(courseIds, capacity);
+                    createTimes = Arrays.copyOf(createTimes, capacity);
+                    values = Arrays.copyOf(values, capacity);
+                }
+                if (ordinal > 0 && (createTime < createTimes[ordinal - 1]
+                        || (createTime == createTimes[ordinal - 1] && courseId < courseIds[ordinal - 1]))) {
+                    ordered = false;
+                }
+                ordinals.put(courseId, ordinal);
+            } else {
+                clearValues(ordinal);
+                if (createTime != createTimes[ordinal]) {
+                    ordered = false;
+                }
+            }
+            courseIds[ordinal] = courseId;
+            createTimes[ordinal] = createTime;
+            values[ordinal] = newValues;
+            for (int f = 0; f < FACETS.length; f++) {
+                if (newValues[f] != null) {
+                    facets.get(FACETS[f]).computeIfAbsent(newValues[f], k -> new BitSet()).set(ordinal);
+                }
+            }
+            live.set(ordinal);
+        }
+
+        /**
+         * 按 (创建时间, ID) 升序重新分配序号
+         */
+        private State reordered() {
+            Integer[] order = new Integer[live.cardinality()];
+            int n = 0;
+            for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+                order[n++] = i;
+            }
+            Arrays.sort(order, (a, b) -> createTimes[a] != createTimes[b]
+                    ? Long.compare(createTimes[a], createTimes[b]) : Long.compare(courseIds[a], courseIds[b]));
+            State result = new State();
+            for (Integer ordinal : order) {
+                result.put(courseIds[ordinal], createTimes[ordinal], values[ordinal]);
+            }
+            return result;
+        }
+
+        private void remove(Long courseId) {
+            Integer ordinal = ordinals.remove(courseId);
+            if (ordinal == null) {
+                return;
+            }
+            clearValues(ordinal);
+            values[ordinal] = null;
+            live.clear(ordinal);
+        }
+
+        private void clearValues(int ordinal) {
+            String[] old = values[ordinal];
+            if (old == null) {
+                return;
+            }
+            for (int f = 0; f < FACETS.length; f++) {
+                if (old[f] == null) {
+                    continue;
+                }
+                Map<String, BitSet> byValue = facets.get(FACETS[f]);
+                BitSet bits = byValue.get(old[f]);
+                if (bits != null) {
+                    bits.clear(ordinal);
+                    if (bits.isEmpty()) {
+                        byValue.remove(old[f]);
+                    }
+                }
+            }
+        }
+    }
+}
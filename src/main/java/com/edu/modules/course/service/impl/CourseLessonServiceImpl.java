@@ -1,18 +1,32 @@
 package com.edu.modules.course.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.utils.SortOrderUtils;
+import com.edu.modules.course.counter.CourseCounterAggregator;
+import com.edu.modules.course.entity.CourseChapter;
 import com.edu.modules.course.entity.CourseLesson;
+import com.edu.modules.course.mapper.CourseChapterMapper;
 import com.edu.modules.course.mapper.CourseLessonMapper;
 import com.edu.modules.course.service.CourseLessonService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 课程课时服务实现
@@ -22,6 +36,27 @@ import java.util.List;
 public class CourseLessonServiceImpl extends ServiceImpl<CourseLessonMapper, CourseLesson>
         implements CourseLessonService {
 
+    private static final int LESSON_COURSE_CACHE_SIZE = 100000;
+
+    @Autowired
+    private CourseChapterMapper courseChapterMapper;
+
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+
+    @Autowired
+    private CourseCounterAggregator courseCounterAggregator;
+
+    /**
+     * 课时ID -> 课程ID
+     */
+    private final Map<Long, Long> lessonCourseIds = new ConcurrentHashMap<>();
+
+    /**
+     * 课时ID -> 时长（秒）
+     */
+    private final Map<Long, Integer> lessonDurations = new ConcurrentHashMap<>();
+
     @Override
     public CourseLesson createLesson(CourseLesson lesson) {
         // 参数校验
@@ -51,6 +86,7 @@ public class CourseLessonServiceImpl extends ServiceImpl<CourseLessonMapper, Cou
             throw new BusinessException("创建课时失败");
         }
 
+        lessonsChangedInChapter(lesson.getChapterId());
         log.info("课时创建成功: title={}, chapterId={}", lesson.getTitle(), lesson.getChapterId());
         return lesson;
     }
@@ -61,8 +97,13 @@ public class CourseLessonServiceImpl extends ServiceImpl<CourseLessonMapper, Cou
             return false;
         }
 
+        Long oldCourseId = getCourseIdByLessonId(lesson.getId());
         boolean success = updateById(lesson);
         if (success) {
+            lessonCourseIds.remove(lesson.getId());
+            lessonDurations.remove(lesson.getId());
+            lessonsChanged(oldCourseId);
+            lessonsChangedInChapter(lesson.getChapterId());
             log.info("课时更新成功: id={}", lesson.getId());
         }
         return success;
@@ -74,8 +115,12 @@ public class CourseLessonServiceImpl extends ServiceImpl<CourseLessonMapper, Cou
             return false;
         }
 
+        Long courseId = getCourseIdByLessonId(lessonId);
         boolean success = removeById(lessonId);
         if (success) {
+            lessonCourseIds.remove(lessonId);
+            lessonDurations.remove(lessonId);
+            lessonsChanged(courseId);
             log.info("课时删除成功: id={}", lessonId);
         }
         return success;
@@ -101,28 +146,162 @@ public class CourseLessonServiceImpl extends ServiceImpl<CourseLessonMapper, Cou
             return Collections.emptyList();
         }
 
-        // 这里需要关联查询，先通过章节表获取课时
-        // 暂时返回空列表，后续完善
-        return Collections.emptyList();
+        LambdaQueryWrapper<CourseChapter> chapterWrapper = new LambdaQueryWrapper<>();
+        chapterWrapper.select(CourseChapter::getId)
+                .eq(CourseChapter::getCourseId, courseId);
+        List<Long> chapterIds = new ArrayList<>();
+        for (CourseChapter chapter : courseChapterMapper.selectList(chapterWrapper)) {
+            chapterIds.add(chapter.getId());
+        }
+        return getLessonsByChapterIds(chapterIds);
+    }
+
+    @Override
+    public List<CourseLesson> getLessonsByChapterIds(List<Long> chapterIds) {
+        if (chapterIds == null || chapterIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        LambdaQueryWrapper<CourseLesson> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(CourseLesson::getChapterId, chapterIds)
+                .orderByAsc(CourseLesson::getChapterId)
+                .orderByAsc(CourseLesson::getSortOrder)
+                .orderByAsc(CourseLesson::getCreateTime);
+
+        return list(wrapper);
+    }
+
+    @Override
+    public Map<Long, Integer> getLessonDurations(Collection<Long> lessonIds) {
+        if (lessonIds == null || lessonIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Integer> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long lessonId : lessonIds) {
+            Integer duration = lessonDurations.get(lessonId);
+            if (duration != null) {
+                result.put(lessonId, duration);
+            } else {
+                missing.add(lessonId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        LambdaQueryWrapper<CourseLesson> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(CourseLesson::getId, CourseLesson::getDuration)
+                .in(CourseLesson::getId, missing);
+        if (lessonDurations.size() + missing.size() >= LESSON_COURSE_CACHE_SIZE) {
+            lessonDurations.clear();
+        }
+        for (CourseLesson lesson : list(wrapper)) {
+            int duration = lesson.getDuration() != null ? lesson.getDuration() : 0;
+            lessonDurations.put(lesson.getId(), duration);
+            result.put(lesson.getId(), duration);
+        }
+        return result;
+    }
+
+    @Override
+    public Long getCourseIdByLessonId(Long lessonId) {
+        if (lessonId == null) {
+            return null;
+        }
+        Long courseId = lessonCourseIds.get(lessonId);
+        if (courseId != null) {
+            return courseId;
+        }
+
+        CourseLesson lesson = getById(lessonId);
+        if (lesson == null || lesson.getChapterId() == null) {
+            return null;
+        }
+        CourseChapter chapter = courseChapterMapper.selectById(lesson.getChapterId());
+        if (chapter == null || chapter.getCourseId() == null) {
+            return null;
+        }
+        if (lessonCourseIds.size() >= LESSON_COURSE_CACHE_SIZE) {
+            lessonCourseIds.clear();
+        }
+        lessonCourseIds.put(lessonId, chapter.getCourseId());
+        return chapter.getCourseId();
+    }
+
+    @Override
+    public Map<Long, Long> getCourseIdsByLessonIds(Collection<Long> lessonIds) {
+        if (lessonIds == null || lessonIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Long> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long lessonId : lessonIds) {
+            Long courseId = lessonCourseIds.get(lessonId);
+            if (courseId != null) {
+                result.put(lessonId, courseId);
+            } else if (lessonId != null) {
+                missing.add(lessonId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        if (lessonCourseIds.size() + missing.size() >= LESSON_COURSE_CACHE_SIZE) {
+            lessonCourseIds.clear();
+        }
+        for (Map<String, Object> row : baseMapper.selectCourseIds(missing)) {
+            Object courseId = row.get("course_id");
+            if (courseId == null) {
+                continue;
+            }
+            Long lessonId = ((Number) row.get("lesson_id")).longValue();
+            lessonCourseIds.put(lessonId, ((Number) courseId).longValue());
+            result.put(lessonId, ((Number) courseId).longValue());
+        }
+        return result;
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateLessonSort(List<Long> lessonIds) {
         if (lessonIds == null || lessonIds.isEmpty()) {
             return false;
         }
 
-        boolean success = true;
-        for (int i = 0; i < lessonIds.size(); i++) {
-            CourseLesson lesson = new CourseLesson();
-            lesson.setId(lessonIds.get(i));
-            lesson.setSortOrder(i);
-            success = success && updateById(lesson);
+        // 单条 CASE 语句完成重排，任一课时不存在则整体回滚
+        LambdaUpdateWrapper<CourseLesson> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.setSql(SortOrderUtils.sortOrderCase(lessonIds))
+                .in(CourseLesson::getId, lessonIds);
+        if (baseMapper.update(null, wrapper) != lessonIds.size()) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "课时不存在或已删除");
         }
 
-        if (success) {
-            log.info("课时排序更新成功");
+        courseOutlineCache.evictAll(new HashSet<>(getCourseIdsByLessonIds(lessonIds).values()));
+
+        log.info("课时排序更新成功: count={}", lessonIds.size());
+        return true;
+    }
+
+    /**
+     * 课程的课时发生变化：失效大纲缓存并重新统计课时数与时长
+     */
+    private void lessonsChanged(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        courseOutlineCache.evict(courseId);
+        courseCounterAggregator.markLessonsChanged(courseId);
+    }
+
+    private void lessonsChangedInChapter(Long chapterId) {
+        if (chapterId == null) {
+            return;
+        }
+        CourseChapter chapter = courseChapterMapper.selectById(chapterId);
+        if (chapter != null) {
+            lessonsChanged(chapter.getCourseId());
         }
-        return success;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.edu.modules.course.service.impl;
+
+import com.edu.modules.course.service.CourseOutline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 课程大纲缓存
+ * 同时保存大纲对象与序列化后的响应字节，命中时直接写出，无需查询与序列化；
+ * 章节、课时的增删改及排序会失效对应课程
+ */
+@Component
+public class CourseOutlineCache {
+
+    @Value("${business.course.outline.cache-size:1000}")
+    private int maxSize;
+
+    @Value("${business.course.outline.ttl:300000}")
+    private long ttl;
+
+    private Map<Long, Entry> entries;
+
+    /**
+     * 失效计数，加载期间发生失效时不回填，避免写入旧数据
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取课程大纲，未命中时由loader构建；课程不存在时返回null
+     */
+    public Entry get(Long courseId, Supplier<Entry> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = entries.get(courseId);
+            if (entry != null && entry.expireAt > now) {
+                return entry;
+            }
+        }
+
+        long epoch = invalidations.get();
+        Entry entry = loader.get();
+        if (entry != null && invalidations.get() == epoch) {
+            entry.expireAt = now + ttl;
+            synchronized (this) {
+                entries.put(courseId, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * 失效课程大纲
+     */
+    public void evict(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            entries.remove(courseId);
+        }
+    }
+
+    public void evictAll(Collection<Long> courseIds) {
+        for (Long courseId : courseIds) {
+            evict(courseId);
+        }
+    }
+
+    /**
+     * 缓存条目；大纲对象在多个请求间共享，只读
+     */
+    public static final class Entry {
+        private final CourseOutline outline;
+        private final byte[] body;
+        private volatile long expireAt;
+
+        public Entry(CourseOutline outline, byte[] body) {
+            this.outline = outline;
+            this.body = body;
+        }
+
+        public CourseOutline getOutline() {
+            return outline;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.edu.modules.course.service.impl;
+
+import com.edu.modules.course.entity.Course;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 课程搜索倒排索引（仅包含已发布课程）
+ * 中文按字切分为二元组（同时保留单字以支持单字查询），英文数字按连续串切分并转小写；
+ * 评分采用 BM25F：标题与简介分别做长度归一化，标题词频加权后合并。
+ * 查询只访问命中词的倒排表，耗时与课程总数无关
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Value("${business.course.search.title-boost:3.0}")
+    private double titleBoost;
+
+    private static final Course REMOVED = new Course();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+
+    /**
+     * 重建期间的增量变更，重建完成后补入新索引
+     */
+    private Map<Long, Course> pending;
+    private volatile boolean ready;
+
+    /**
+     * 索引或更新课程；未发布的课程从索引中移除
+     */
+    public void index(Course course) {
+        if (course == null || course.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(course.getId(), course);
+            }
+            apply(current, course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从索引中移除课程
+     */
+    public void remove(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.put(courseId, REMOVED);
+            }
+            current.remove(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 以全量数据重建索引
+     * 先开始记录增量变更再加载数据，新索引在锁外构建，切换时补入加载期间的变更
+     */
+    public synchronized void rebuild(Supplier<? extends Collection<Course>> loader) {
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        try {
+            for (Course course : loader.get()) {
+                apply(rebuilt, course);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Course> entry : pending.entrySet()) {
+                if (entry.getValue() == REMOVED) {
+                    rebuilt.remove(entry.getKey());
+                } else {
+                    apply(rebuilt, entry.getValue());
+                }
+            }
+            pending = null;
+            current = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索课程，返回按相关度降序的课程ID
+     */
+    public List<Long> search(String keyword, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(keyword, false));
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Segment segment = current;
+            int n = segment.docs.size();
+            if (n == 0) {
+                return Collections.emptyList();
+            }
+            double avgTitle = Math.max(1.0, (double) segment.totalTitleLength / n);
+            double avgDesc = Math.max(1.0, (double) segment.totalDescLength / n);
+
+            for (String term : terms) {
+                Map<Long, int[]> list = segment.postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+                for (Map.Entry<Long, int[]> entry : list.entrySet()) {
+                    Doc doc = segment.docs.get(entry.getKey());
+                    int[] tf = entry.getValue();
+                    double weighted = titleBoost * tf[0] / (1 - B + B * doc.titleLength / avgTitle)
+                            + tf[1] / (1 - B + B * doc.descLength / avgDesc);
+                    double score = idf * weighted * (K1 + 1) / (weighted + K1);
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 小顶堆取前 limit 个
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(
+                (a, b) -> Double.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        Long[] ids = new Long[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = heap.poll().getKey();
+        }
+        return Arrays.asList(ids);
+    }
+
+    private static void apply(Segment target, Course course) {
+        if (!Integer.valueOf(1).equals(course.getStatus())) {
+            target.remove(course.getId());
+            return;
+        }
+        target.put(course.getId(), tokenize(course.getTitle(), true), tokenize(course.getDescription(), true));
+    }
+
+    /**
+     * 分词
+     *
+     * @param forIndex 建索引时中文同时输出单字与二元组；查询时连续两个以上的中文只用二元组
+     */
+    static List<String> tokenize(String text, boolean forIndex) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase();
+        int len = lower.length();
+        int i = 0;
+        while (i < len) {
+            char c = lower.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < len && isCjk(lower.charAt(i))) {
+                    i++;
+                }
+                int runLength = i - start;
+                if (forIndex || runLength == 1) {
+                    for (int k = start; k < i; k++) {
+                        tokens.add(String.valueOf(lower.charAt(k)));
+                    }
+                }
+                for (int k = start; k + 1 < i; k++) {
+                    tokens.add(lower.substring(k, k + 2));
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < len && Character.isLetterOrDigit(lower.charAt(i)) && !isCjk(lower.charAt(i))) {
+                    i++;
+                }
+                tokens.add(lower.substring(start, i));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 倒排表与文档信息，重建时整体替换
+     */
+    private static final class Segment {
+
+        /**
+         * 词 -> (课程ID -> [标题词频, 简介词频])
+         */
+        private final Map<String, Map<Long, int[]>> postings = new HashMap<>();
+
+        /**
+         * 课程ID -> 文档信息
+         */
+        private final Map<Long, Doc> docs = new HashMap<>();
+
+        private long totalTitleLength;
+        private long totalDescLength;
+
+        private void put(Long courseId, List<String> titleTerms, List<String> descTerms) {
+            remove(courseId);
+            Map<String, int[]> tf = new HashMap<>();
+            for (String term : titleTerms) {
+                tf.computeIfAbsent(term, k -> new int[2])[0]++;
+            }
+            for (String term : descTerms) {
+                tf.computeIfAbsent(term, k -> new int[2])[1]++;
+            }
+            for (Map.Entry<String, int[]> entry : tf.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(courseId, entry.getValue());
+            }
+            docs.put(courseId, new Doc(titleTerms.size(), descTerms.size(), tf.keySet().toArray(new String[0])));
+            totalTitleLength += titleTerms.size();
+            totalDescLength += descTerms.size();
+        }
+
+        private void remove(Long courseId) {
+            Doc doc = docs.remove(courseId);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms) {
+                Map<Long, int[]> list = postings.get(term);
+                if (list != null) {
+                    list.remove(courseId);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            totalTitleLength -= doc.titleLength;
+            totalDescLength -= doc.descLength;
+        }
+    }
+
+    private static final class Doc {
+        private final int titleLength;
+        private final int descLength;
+        private final String[] terms;
+
+        private Doc(int titleLength, int descLength, String[] terms) {
+            this.titleLength = titleLength;
+            this.descLength = descLength;
+            this.terms = terms;
+        }
+    }
+}
@@ -4,16 +4,49 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
+import com.edu.common.enums.UserRole;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.result.CursorPage;
+import com.edu.common.result.Result;
+import com.edu.common.utils.KeysetPager;
 import com.edu.modules.course.entity.Course;
+import com.edu.modules.course.entity.CourseChapter;
+import com.edu.modules.course.entity.CourseLesson;
 import com.edu.modules.course.mapper.CourseMapper;
+import com.edu.modules.course.ranking.HotCourseRanking;
+import com.edu.modules.course.service.CourseCategoryService;
+import com.edu.modules.course.service.CourseChapterService;
+import com.edu.modules.course.service.CourseFacetQuery;
+import com.edu.modules.course.service.CourseFacetResult;
+import com.edu.modules.course.service.CourseLessonService;
+import com.edu.modules.course.service.CourseOutline;
 import com.edu.modules.course.service.CourseService;
+import com.edu.security.AuthContext;
+import com.edu.security.AuthContextHolder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 课程服务实现
@@ -22,6 +55,53 @@ import java.util.List;
 @Service
 public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> implements CourseService {
 
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+
+    @Autowired
+    private CourseFacetIndex courseFacetIndex;
+
+    @Autowired
+    private HotCourseRanking hotCourseRanking;
+
+    @Autowired
+    private CourseChapterService courseChapterService;
+
+    @Autowired
+    private CourseCategoryService courseCategoryService;
+
+    @Autowired
+    private CourseLessonService courseLessonService;
+
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthContextHolder authContextHolder;
+
+    @Value("${business.course.search.limit:50}")
+    private int searchLimit;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Value("${business.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${business.page.max-size:100}")
+    private int maxPageSize;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final AtomicBoolean facetRebuildScheduled = new AtomicBoolean();
+
     @Override
     public Course createCourse(Course course) {
         // 参数校验
@@ -57,6 +137,8 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
             throw new BusinessException("创建课程失败");
         }
 
+        courseSearchIndex.index(course);
+        courseFacetIndex.index(course);
         log.info("课程创建成功: title={}, id={}", course.getTitle(), course.getId());
         return course;
     }
@@ -69,6 +151,7 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
 
         boolean success = updateById(course);
         if (success) {
+            reindex(course.getId());
             log.info("课程更新成功: id={}", course.getId());
         }
         return success;
@@ -82,6 +165,10 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
 
         boolean success = removeById(courseId);
         if (success) {
+            courseSearchIndex.remove(courseId);
+            courseFacetIndex.remove(courseId);
+            courseOutlineCache.evict(courseId);
+            hotCourseRanking.invalidate(courseId);
             log.info("课程删除成功: id={}", courseId);
         }
         return success;
@@ -106,8 +193,14 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
             return Collections.emptyList();
         }
 
+        // 包含全部子孙分类下的课程
+        List<Long> categoryIds = courseCategoryService.getSubtreeIds(categoryId);
+        if (categoryIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
         LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Course::getCategoryId, categoryId)
+        wrapper.in(Course::getCategoryId, categoryIds)
                 .eq(Course::getStatus, 1) // 只查询发布状态的课程
                 .orderByDesc(Course::getCreateTime);
 
@@ -126,6 +219,7 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
 
         boolean success = update(wrapper);
         if (success) {
+            reindex(courseId);
             log.info("课程发布成功: id={}", courseId);
         }
         return success;
@@ -143,6 +237,10 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
 
         boolean success = update(wrapper);
         if (success) {
+            courseSearchIndex.remove(courseId);
+            courseFacetIndex.remove(courseId);
+            courseOutlineCache.evict(courseId);
+            hotCourseRanking.invalidate(courseId);
             log.info("课程下架成功: id={}", courseId);
         }
         return success;
@@ -153,13 +251,17 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
         if (limit == null || limit <= 0) {
             limit = 10;
         }
+        return hotCourseRanking.getHotCourses(limit);
+    }
 
-        LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Course::getStatus, 1) // 只查询发布状态的课程
-                .orderByDesc(Course::getStudentCount) // 按学员数量排序
-                .last("limit " + limit);
+    @Override
+    public byte[] getCourseOutlineJson(Long courseId) {
+        return outlineEntry(courseId).getBody();
+    }
 
-        return list(wrapper);
+    @Override
+    public CourseOutline getCourseOutline(Long courseId) {
+        return outlineEntry(courseId).getOutline();
     }
 
     @Override
@@ -168,13 +270,400 @@ public class CourseServiceImpl extends ServiceImpl<CourseMapper, Course> impleme
             return Collections.emptyList();
         }
 
+        if (courseSearchIndex.isReady()) {
+            List<Long> ids = courseSearchIndex.search(keyword, searchLimit);
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            // 按相关度顺序返回，过滤索引与数据库之间短暂不一致的记录
+            Map<Long, Course> courses = new HashMap<>();
+            for (Course course : listByIds(ids)) {
+                courses.put(course.getId(), course);
+            }
+            List<Course> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Course course = courses.get(id);
+                if (course != null && Integer.valueOf(1).equals(course.getStatus())) {
+                    result.add(course);
+                }
+            }
+            return result;
+        }
+
+        // 索引尚未就绪时回退到数据库查询
         LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(Course::getStatus, 1) // 只查询发布状态的课程
-                .like(Course::getTitle, keyword)
-                .or()
-                .like(Course::getDescription, keyword)
-                .orderByDesc(Course::getCreateTime);
+                .and(w -> w.like(Course::getTitle, keyword)
+                        .or()
+                        .like(Course::getDescription, keyword))
+                .orderByDesc(Course::getCreateTime)
+                .last("limit " + searchLimit);
 
         return list(wrapper);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean canViewUnpublished(Long instructorId) {
+        AuthContext context = authContextHolder.current();
+        if (context == null) {
+            return false;
+        }
+        return context.isAdmin()
+                || (context.hasRole(UserRole.INSTRUCTOR) && context.getUserId().equals(instructorId));
+    }
+
+    @Override
+    public boolean canView(Integer status, Long instructorId) {
+        return Integer.valueOf(1).equals(status) || canViewUnpublished(instructorId);
+    }
+
+    @Override
+    public void checkCourseVisible(Long courseId) {
+        Course course = null;
+        if (courseId != null) {
+            LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Course::getId, Course::getStatus, Course::getInstructorId).eq(Course::getId, courseId);
+            course = getOne(wrapper);
+        }
+        if (course == null || !canView(course.getStatus(), course.getInstructorId())) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "课程不存在");
+        }
+    }
+
+    @Override
+    public CursorPage<Course> pageCourses(Long instructorId, Long categoryId, Integer status, String cursor, Integer size) {
+        LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(instructorId != null, Course::getInstructorId, instructorId);
+        if (categoryId != null) {
+            // 包含全部子孙分类下的课程
+            List<Long> categoryIds = courseCategoryService.getSubtreeIds(categoryId);
+            if (categoryIds.isEmpty()) {
+                return new CursorPage<>(Collections.emptyList(), null, 0);
+            }
+            wrapper.in(Course::getCategoryId, categoryIds);
+        }
+        if (status != null) {
+            wrapper.eq(Course::getStatus, status);
+        } else if (instructorId == null && categoryId != null) {
+            wrapper.eq(Course::getStatus, 1); // 按分类浏览只查询发布状态的课程
+        }
+        return keysetPager.page(this, wrapper, cursor, size, Course::getCreateTime, Course::getId);
+    }
+
+    /**
+     * 启动后分批扫描已发布课程重建搜索索引与分面索引
+     * 两个索引都在扫描前开始记录增量变更，只扫描一次，同一份结果依次构建两个索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        try {
+            AtomicReference<List<Course>> published = new AtomicReference<>();
+            courseFacetIndex.rebuild(() -> {
+                courseSearchIndex.rebuild(() -> {
+                    published.set(loadPublished());
+                    return published.get();
+                });
+                courseSearchIndex.markReady();
+                return published.get();
+            });
+            log.info("课程搜索索引重建完成: {} 门课程", courseSearchIndex.size());
+        } catch (Exception e) {
+            log.warn("课程搜索索引重建失败，搜索将回退到数据库查询: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时重建搜索索引，纳入其他节点上的课程变更（本节点的变更已增量更新）
+     */
+    @Scheduled(fixedDelayString = "${business.course.search.rebuild-interval:300000}",
+            initialDelayString = "${business.course.search.rebuild-interval:300000}")
+    public void refreshSearchIndex() {
+        try {
+            courseSearchIndex.rebuild(this::loadPublished);
+            courseSearchIndex.markReady();
+        } catch (Exception e) {
+            log.warn("课程搜索索引重建失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在后台重建分面索引，同一时间只提交一次，请求线程不等待
+     */
+    private void scheduleFacetRebuild() {
+        if (!facetRebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    // 提交后可能已由启动或定时任务重建完成
+                    if (!courseFacetIndex.isReady()) {
+                        rebuildFacetIndex();
+                    }
+                } finally {
+                    facetRebuildScheduled.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            facetRebuildScheduled.set(false);
+            log.warn("课程分面索引重建任务提交失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时重建分面索引，纳入评分等统计字段的变化（统计字段由计数器异步写回，不触发增量更新）
+     */
+    @Scheduled(fixedDelayString = "${business.course.facet.rebuild-interval:300000}",
+            initialDelayString = "${business.course.facet.rebuild-interval:300000}")
+    public void rebuildFacetIndex() {
+        try {
+            courseFacetIndex.rebuild(this::loadPublished);
+        } catch (Exception e) {
+            log.warn("课程分面索引重建失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public CourseFacetResult browseCourses(CourseFacetQuery query) {
+        if (query == null) {
+            query = new CourseFacetQuery();
+        }
+        int page = query.getPage() == null || query.getPage() < 1 ? 1 : query.getPage();
+        int size = query.getSize() == null || query.getSize() <= 0 ? defaultPageSize : Math.min(query.getSize(), maxPageSize);
+
+        Map<String, List<String>> filters = new HashMap<>();
+        List<Long> categoryIds = null;
+        if (query.getCategoryId() != null) {
+            // 包含全部子孙分类下的课程
+            categoryIds = courseCategoryService.getSubtreeIds(query.getCategoryId());
+            List<String> categories = new ArrayList<>();
+            for (Long id : categoryIds) {
+                categories.add(String.valueOf(id));
+            }
+            filters.put(CourseFacetIndex.CATEGORY, categories);
+        }
+        if (query.getLevels() != null && !query.getLevels().isEmpty()) {
+            List<String> levels = new ArrayList<>();
+            for (Integer level : query.getLevels()) {
+                levels.add(String.valueOf(level));
+            }
+            filters.put(CourseFacetIndex.LEVEL, levels);
+        }
+        if (query.getPriceBands() != null && !query.getPriceBands().isEmpty()) {
+            filters.put(CourseFacetIndex.PRICE, query.getPriceBands());
+        }
+        if (query.getRatingBands() != null && !query.getRatingBands().isEmpty()) {
+            filters.put(CourseFacetIndex.RATING, query.getRatingBands());
+        }
+        if (query.getFree() != null) {
+            filters.put(CourseFacetIndex.FREE, Collections.singletonList(query.getFree() ? "free" : "paid"));
+        }
+        if (!courseFacetIndex.isReady()) {
+            // 索引尚未就绪时在后台重建，本次请求回退到数据库查询（不含分面计数）
+            scheduleFacetRebuild();
+            return browseFromDatabase(query, categoryIds, page, size);
+        }
+        CourseFacetIndex.Hits hits = courseFacetIndex.query(filters, (page - 1) * size, size);
+
+        List<Course> records = new ArrayList<>();
+        if (!hits.getCourseIds().isEmpty()) {
+            records.addAll(listByIds(hits.getCourseIds()));
+            records.removeIf(course -> !Integer.valueOf(1).equals(course.getStatus()));
+            records.sort(Comparator.comparing(Course::getCreateTime, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Course::getId, Comparator.reverseOrder()));
+        }
+
+        CourseFacetResult result = new CourseFacetResult();
+        result.setTotal(hits.getTotal());
+        result.setPage(page);
+        result.setSize(size);
+        result.setRecords(records);
+        result.setFacets(hits.getCounts());
+        return result;
+    }
+
+    /**
+     * 分面索引未就绪时按相同条件直接查询数据库，分面计数为空
+     */
+    private CourseFacetResult browseFromDatabase(CourseFacetQuery query, List<Long> categoryIds, int page, int size) {
+        CourseFacetResult result = new CourseFacetResult();
+        result.setPage(page);
+        result.setSize(size);
+        result.setFacets(Collections.emptyMap());
+        result.setRecords(Collections.emptyList());
+
+        LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Course::getStatus, 1);
+        if (categoryIds != null) {
+            if (categoryIds.isEmpty()) {
+                return result;
+            }
+            wrapper.in(Course::getCategoryId, categoryIds);
+        }
+        if (query.getLevels() != null && !query.getLevels().isEmpty()) {
+            wrapper.in(Course::getLevel, query.getLevels());
+        }
+        if (!applyBands(wrapper, "COALESCE(price, 0)", query.getPriceBands())
+                || !applyBands(wrapper, "COALESCE(rating, 0)", query.getRatingBands())) {
+            return result;
+        }
+        if (query.getFree() != null) {
+            wrapper.apply(query.getFree() ? "COALESCE(price, 0) <= 0" : "price > 0");
+        }
+
+        result.setTotal(Math.toIntExact(count(wrapper)));
+        if (result.getTotal() > (page - 1) * size) {
+            wrapper.orderByDesc(Course::getCreateTime).orderByDesc(Course::getId)
+                    .last("limit " + (page - 1) * size + ", " + size);
+            result.setRecords(list(wrapper));
+        }
+        return result;
+    }
+
+    /**
+     * 区间标签转换为 (下界 <= 列 < 上界) 的或条件；没有有效标签时不命中任何课程，返回false
+     */
+    private static boolean applyBands(LambdaQueryWrapper<Course> wrapper, String column, List<String> bands) {
+        if (bands == null || bands.isEmpty()) {
+            return true;
+        }
+        List<BigDecimal[]> ranges = new ArrayList<>();
+        for (String band : bands) {
+            BigDecimal[] range = CourseFacetIndex.bandRange(band);
+            if (range != null) {
+                ranges.add(range);
+            }
+        }
+        if (ranges.isEmpty()) {
+            return false;
+        }
+        wrapper.and(w -> {
+            for (int i = 0; i < ranges.size(); i++) {
+                BigDecimal[] range = ranges.get(i);
+                if (i > 0) {
+                    w.or();
+                }
+                if (range[1] != null) {
+                    w.apply("(" + column + " >= {0} AND " + column + " < {1})", range[0], range[1]);
+                } else {
+                    w.apply(column + " >= {0}", range[0]);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 按ID分批扫描全部已发布课程（只取索引所需字段）
+     */
+    private List<Course> loadPublished() {
+        List<Course> published = new ArrayList<>();
+        long lastId = 0;
+        while (true) {
+            LambdaQueryWrapper<Course> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(Course::getId, Course::getTitle, Course::getDescription, Course::getStatus,
+                            Course::getCategoryId, Course::getLevel, Course::getPrice, Course::getRating,
+                            Course::getCreateTime)
+                    .eq(Course::getStatus, 1)
+                    .gt(Course::getId, lastId)
+                    .orderByAsc(Course::getId)
+                    .last("limit " + SCAN_BATCH_SIZE);
+            List<Course> batch = list(wrapper);
+            if (batch.isEmpty()) {
+                break;
+            }
+            published.addAll(batch);
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        return published;
+    }
+
+    private CourseOutlineCache.Entry outlineEntry(Long courseId) {
+        if (courseId == null) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "课程ID不能为空");
+        }
+
+        // 缓存只保存已发布课程的大纲
+        CourseOutlineCache.Entry entry = courseOutlineCache.get(courseId, () -> {
+            Course course = getById(courseId);
+            return course != null && Integer.valueOf(1).equals(course.getStatus()) ? toEntry(buildOutline(courseId)) : null;
+        });
+        if (entry == null) {
+            // 未发布课程仅管理员与讲师本人可见，不经过缓存
+            Course course = getById(courseId);
+            if (course != null && canViewUnpublished(course.getInstructorId())) {
+                entry = toEntry(buildOutline(courseId));
+            }
+        }
+        if (entry == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND, "课程不存在");
+        }
+        return entry;
+    }
+
+    private CourseOutlineCache.Entry toEntry(CourseOutline outline) {
+        try {
+            return new CourseOutlineCache.Entry(outline, objectMapper.writeValueAsBytes(Result.success(outline)));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("课程大纲生成失败");
+        }
+    }
+
+    /**
+     * 构建课程大纲：一次查询章节，一次按章节ID集合查询课时
+     */
+    private CourseOutline buildOutline(Long courseId) {
+        CourseOutline outline = new CourseOutline();
+        outline.setCourseId(courseId);
+        Map<Long, CourseOutline.Chapter> chapters = new LinkedHashMap<>();
+        for (CourseChapter chapter : courseChapterService.getChaptersByCourseId(courseId)) {
+            if (!Integer.valueOf(1).equals(chapter.getStatus())) {
+                continue;
+            }
+            CourseOutline.Chapter node = new CourseOutline.Chapter();
+            node.setId(chapter.getId());
+            node.setTitle(chapter.getTitle());
+            node.setDescription(chapter.getDescription());
+            node.setSortOrder(chapter.getSortOrder());
+            chapters.put(chapter.getId(), node);
+        }
+
+        int lessonCount = 0;
+        int totalDuration = 0;
+        for (CourseLesson lesson : courseLessonService.getLessonsByChapterIds(new ArrayList<>(chapters.keySet()))) {
+            CourseOutline.Chapter chapter = chapters.get(lesson.getChapterId());
+            if (chapter == null || !Integer.valueOf(1).equals(lesson.getStatus())) {
+                continue;
+            }
+            CourseOutline.Lesson node = new CourseOutline.Lesson();
+            node.setId(lesson.getId());
+            node.setTitle(lesson.getTitle());
+            node.setDuration(lesson.getDuration());
+            node.setSortOrder(lesson.getSortOrder());
+            node.setIsFree(lesson.getIsFree());
+            chapter.getLessons().add(node);
+            lessonCount++;
+            totalDuration += lesson.getDuration() != null ? lesson.getDuration() : 0;
+        }
+
+        outline.setChapters(new ArrayList<>(chapters.values()));
+        outline.setLessonCount(lessonCount);
+        outline.setTotalDuration(totalDuration);
+        return outline;
+    }
+
+    /**
+     * 按数据库最新状态更新搜索索引与分面索引，并让热门列表重读该课程
+     */
+    private void reindex(Long courseId) {
+        hotCourseRanking.invalidate(courseId);
+        Course current = getById(courseId);
+        if (current != null) {
+            courseSearchIndex.index(current);
+            courseFacetIndex.index(current);
+        } else {
+            courseSearchIndex.remove(courseId);
+            courseFacetIndex.remove(courseId);
+        }
+    }
+}
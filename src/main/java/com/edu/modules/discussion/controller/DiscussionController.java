@@ -1,5 +1,6 @@
 package com.edu.modules.discussion.controller;
 
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
 import com.edu.modules.discussion.entity.Discussion;
 import com.edu.modules.discussion.service.DiscussionService;
@@ -126,8 +127,11 @@ public class DiscussionController {
 
     @ApiOperation("获取课程讨论帖列表")
     @GetMapping("/course/{courseId}")
-    public Result<List<Discussion>> getCourseDiscussions(@ApiParam("课程ID") @PathVariable Long courseId) {
-        List<Discussion> discussions = discussionService.getDiscussionsByCourseId(courseId);
+    public Result<CursorPage<Discussion>> getCourseDiscussions(
+            @ApiParam("课程ID") @PathVariable Long courseId,
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
+        CursorPage<Discussion> discussions = discussionService.pageDiscussionsByCourseId(courseId, cursor, size);
         return Result.success(discussions);
     }
 
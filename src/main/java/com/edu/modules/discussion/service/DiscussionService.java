@@ -1,6 +1,7 @@
 package com.edu.modules.discussion.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.discussion.entity.Discussion;
 import com.edu.modules.discussion.entity.DiscussionReply;
 
@@ -50,4 +51,9 @@ public interface DiscussionService extends IService<Discussion> {
      * 获取热门讨论帖
      */
     List<Discussion> getHotDiscussions(Long courseId, Integer limit);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页查询课程讨论帖（置顶优先，按创建时间倒序）
+     */
+    CursorPage<Discussion> pageDiscussionsByCourseId(Long courseId, String cursor, Integer size);
+}
@@ -5,13 +5,17 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.result.CursorPage;
+import com.edu.common.utils.KeysetPager;
 import com.edu.modules.discussion.entity.Discussion;
 import com.edu.modules.discussion.mapper.DiscussionMapper;
 import com.edu.modules.discussion.service.DiscussionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,6 +26,9 @@ import java.util.List;
 @Service
 public class DiscussionServiceImpl extends ServiceImpl<DiscussionMapper, Discussion> implements DiscussionService {
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     @Override
     public Discussion createDiscussion(Discussion discussion) {
         // 参数校验
@@ -185,4 +192,13 @@ public class DiscussionServiceImpl extends ServiceImpl<DiscussionMapper, Discuss
 
         return list(wrapper);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CursorPage<Discussion> pageDiscussionsByCourseId(Long courseId, String cursor, Integer size) {
+        LambdaQueryWrapper<Discussion> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Discussion::getCourseId, courseId)
+               .eq(Discussion::getStatus, 1); // 只查询显示状态的讨论
+        return keysetPager.page(this, wrapper, cursor, size,
+                Arrays.asList(Discussion::getIsTop, Discussion::getCreateTime, Discussion::getId));
+    }
+}
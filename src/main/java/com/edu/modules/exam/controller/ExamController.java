@@ -1,6 +1,9 @@
 package com.edu.modules.exam.controller;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
+import com.edu.common.utils.ContentVersions;
 import com.edu.modules.exam.entity.Exam;
 import com.edu.modules.exam.entity.ExamQuestion;
 import com.edu.modules.exam.entity.ExamRecord;
@@ -15,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -33,6 +37,14 @@ import java.util.Map;
 @Validated
 public class ExamController {
 
+    /**
+     * 考试的可变内容列，用于计算ETag（见 {@link ContentVersions}）
+     */
+    private static final String[] CONTENT_COLUMNS = {"course_id", "title", "description", "duration",
+            "total_score", "pass_score", "question_count", "start_time", "end_time", "status"};
+    private static final String[] VERSION_COLUMNS = {"update_time", "course_id", "title", "description", "duration",
+            "total_score", "pass_score", "question_count", "start_time", "end_time", "status"};
+
     @Autowired
     private ExamService examService;
 
@@ -103,14 +115,23 @@ public class ExamController {
 
     @ApiOperation("获取考试详情")
     @GetMapping("/{id}")
-    public Result<Exam> getExam(@ApiParam("考试ID") @PathVariable Long id) {
+    public Result<Exam> getExam(@ApiParam("考试ID") @PathVariable Long id, ServletWebRequest request) {
+        if (ContentVersions.notModified(request, ContentVersions.ofRow(examService, id, VERSION_COLUMNS))) {
+            return null;
+        }
         Exam exam = examService.getById(id);
         return exam != null ? Result.success(exam) : Result.fail("考试不存在");
     }
 
     @ApiOperation("获取课程考试列表")
     @GetMapping("/course/{courseId}")
-    public Result<List<Exam>> getCourseExams(@ApiParam("课程ID") @PathVariable Long courseId) {
+    public Result<List<Exam>> getCourseExams(@ApiParam("课程ID") @PathVariable Long courseId,
+                                             ServletWebRequest request) {
+        QueryWrapper<Exam> versionWrapper = new QueryWrapper<>();
+        versionWrapper.eq("course_id", courseId);
+        if (ContentVersions.notModified(request, ContentVersions.ofSet(examService, versionWrapper, CONTENT_COLUMNS))) {
+            return null;
+        }
         List<Exam> exams = examService.getExamsByCourseId(courseId);
         return Result.success(exams);
     }
@@ -164,7 +185,9 @@ public class ExamController {
 
     @ApiOperation("获取我的考试记录")
     @GetMapping("/my-records")
-    public Result<List<ExamRecord>> getMyExamRecords() {
+    public Result<CursorPage<ExamRecord>> getMyExamRecords(
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
         Long userId = (Long) org.springframework.web.context.request.RequestContextHolder
                 .currentRequestAttributes().getAttribute("userId",
                 org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
@@ -173,7 +196,7 @@ public class ExamController {
             return Result.fail("用户未登录");
         }
 
-        List<ExamRecord> records = examRecordService.getUserExamRecords(userId);
+        CursorPage<ExamRecord> records = examRecordService.pageUserExamRecords(userId, cursor, size);
         return Result.success(records);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.edu.modules.exam.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.exam.entity.ExamRecord;
 
 import java.util.List;
@@ -39,4 +40,9 @@ public interface ExamRecordService extends IService<ExamRecord> {
      * 获取考试最高分
      */
     java.math.BigDecimal getExamHighestScore(Long examId);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页查询用户考试记录（按创建时间倒序）
+     */
+    CursorPage<ExamRecord> pageUserExamRecords(Long userId, String cursor, Integer size);
+}
@@ -1,12 +1,17 @@
 package com.edu.modules.exam.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import com.edu.common.utils.SortOrderUtils;
 import com.edu.modules.exam.entity.ExamQuestion;
 import com.edu.modules.exam.mapper.ExamQuestionMapper;
 import com.edu.modules.exam.service.ExamQuestionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -71,22 +76,22 @@ public class ExamQuestionServiceImpl extends ServiceImpl<ExamQuestionMapper, Exa
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean updateQuestionSort(Long examId, List<Long> questionIds) {
         if (examId == null || questionIds == null || questionIds.isEmpty()) {
             return false;
         }
 
-        boolean success = true;
-        for (int i = 0; i < questionIds.size(); i++) {
-            ExamQuestion question = new ExamQuestion();
-            question.setId(questionIds.get(i));
-            question.setSortOrder(i);
-            success = success && updateById(question);
+        // 单条 CASE 语句完成重排，任一题目不属于该考试则整体回滚
+        LambdaUpdateWrapper<ExamQuestion> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.setSql(SortOrderUtils.sortOrderCase(questionIds))
+                .eq(ExamQuestion::getExamId, examId)
+                .in(ExamQuestion::getId, questionIds);
+        if (baseMapper.update(null, wrapper) != questionIds.size()) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "题目不存在或不属于该考试");
         }
 
-        if (success) {
-            log.info("更新题目排序成功: examId={}", examId);
-        }
-        return success;
+        log.info("更新题目排序成功: examId={}, count={}", examId, questionIds.size());
+        return true;
     }
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.edu.modules.exam.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.edu.common.result.CursorPage;
+import com.edu.common.utils.KeysetPager;
 import com.edu.modules.exam.entity.ExamRecord;
 import com.edu.modules.exam.mapper.ExamRecordMapper;
 import com.edu.modules.exam.service.ExamRecordService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -20,6 +23,9 @@ import java.util.List;
 public class ExamRecordServiceImpl extends ServiceImpl<ExamRecordMapper, ExamRecord>
         implements ExamRecordService {
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     @Override
     public ExamRecord getUserExamRecord(Long userId, Long examId) {
         if (userId == null || examId == null) {
@@ -108,4 +114,11 @@ public class ExamRecordServiceImpl extends ServiceImpl<ExamRecordMapper, ExamRec
                 .max(BigDecimal::compareTo)
                 .orElse(BigDecimal.ZERO);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CursorPage<ExamRecord> pageUserExamRecords(Long userId, String cursor, Integer size) {
+        LambdaQueryWrapper<ExamRecord> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(ExamRecord::getUserId, userId);
+        return keysetPager.page(this, wrapper, cursor, size, ExamRecord::getCreateTime, ExamRecord::getId);
+    }
+}
@@ -9,6 +9,7 @@ import com.edu.modules.file.entity.FileInfo;
 import com.edu.modules.file.mapper.FileInfoMapper;
 import com.edu.modules.file.service.FileService;
 import com.edu.modules.file.service.OssService;
+import com.edu.security.AuthContextHolder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,9 @@ import java.util.UUID;
 @Service
 public class FileServiceImpl extends ServiceImpl<FileInfoMapper, FileInfo> implements FileService {
 
+    @Autowired
+    private AuthContextHolder authContextHolder;
+
     @Autowired
     private FileConfig fileConfig;
 
@@ -77,7 +81,7 @@ public class FileServiceImpl extends ServiceImpl<FileInfoMapper, FileInfo> imple
         String uniqueFileName = generateUniqueFileName(originalFilename);
 
         // 获取当前用户ID
-        Long userId = getCurrentUserId();
+        Long userId = authContextHolder.getUserId();
 
         String fileUrl;
         Integer storageType;
@@ -357,17 +361,4 @@ public class FileServiceImpl extends ServiceImpl<FileInfoMapper, FileInfo> imple
             return 50 * 1024 * 1024; // 默认50MB
         }
     }
-
-    /**
-     * 获取当前用户ID
-     */
-    private Long getCurrentUserId() {
-        try {
-            return (Long) org.springframework.web.context.request.RequestContextHolder
-                    .currentRequestAttributes().getAttribute("userId",
-                    org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
\ No newline at end of file
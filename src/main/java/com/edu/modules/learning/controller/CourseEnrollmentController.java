@@ -1,7 +1,10 @@
 package com.edu.modules.learning.controller;
 
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
 import com.edu.common.result.Result;
 import com.edu.modules.learning.entity.CourseEnrollment;
+import com.edu.modules.learning.service.BulkEnrollmentResult;
 import com.edu.modules.learning.service.CourseEnrollmentService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -11,7 +14,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -62,6 +67,25 @@ public class CourseEnrollmentController {
         return success ? Result.success("退课成功") : Result.fail("退课失败");
     }
 
+    @ApiOperation("批量选课（用户ID列表）")
+    @PostMapping(value = "/courses/{courseId}/enrollments/bulk", consumes = "application/json")
+    public Result<BulkEnrollmentResult> bulkEnroll(
+            @ApiParam("课程ID") @PathVariable Long courseId,
+            @ApiParam("用户ID列表") @RequestBody List<Long> userIds) {
+        return Result.success(courseEnrollmentService.bulkEnroll(courseId, userIds));
+    }
+
+    @ApiOperation("批量选课（CSV，每行第一列为用户ID）")
+    @PostMapping(value = "/courses/{courseId}/enrollments/bulk", consumes = "text/csv")
+    public Result<BulkEnrollmentResult> bulkEnrollCsv(
+            @ApiParam("课程ID") @PathVariable Long courseId, HttpServletRequest request) {
+        try {
+            return Result.success(courseEnrollmentService.bulkEnroll(courseId, request.getReader()));
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.VALIDATION_ERROR, "读取CSV失败");
+        }
+    }
+
     @ApiOperation("检查选课状态")
     @GetMapping("/enrolled/{courseId}")
     public Result<Boolean> checkEnrollment(@ApiParam("课程ID") @PathVariable Long courseId) {
@@ -77,7 +101,7 @@ public class CourseEnrollmentController {
         return Result.success(enrolled);
     }
 
-    @ApiOperation("获取我的选课列表")
+    @ApiOperation("获取我的选课列表（含课程完成进度）")
     @GetMapping("/my-courses")
     public Result<List<CourseEnrollment>> getMyEnrollments() {
         Long userId = (Long) org.springframework.web.context.request.RequestContextHolder
@@ -37,6 +37,16 @@ public class CourseEnrollment {
      */
     private Integer status;
 
+    /**
+     * 已完成课时数
+     */
+    private Integer completedLessons;
+
+    /**
+     * 课程完成百分比（0-100）
+     */
+    private Integer progress;
+
     /**
      * 创建时间
      */
@@ -38,10 +38,15 @@ public class LearningProgress {
     private Integer lastPosition;
 
     /**
-     * 观看时长（秒）
+     * 观看时长（秒，已观看区间去重后的总长度）
      */
     private Integer duration;
 
+    /**
+     * 已观看区间（秒），格式 "起点-终点,起点-终点"
+     */
+    private String watchedIntervals;
+
     /**
      * 是否完成：0-未完成，1-已完成
      */
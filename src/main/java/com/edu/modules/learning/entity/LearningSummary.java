@@ -0,0 +1,44 @@
+package com.edu.modules.learning.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 学习统计实体（每个用户一行）
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("tb_learning_summary")
+public class LearningSummary {
+
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    /**
+     * 学习过的课时数
+     */
+    private Integer lessonsTouched;
+
+    /**
+     * 已完成课时数
+     */
+    private Integer lessonsCompleted;
+
+    /**
+     * 总观看时长（秒）
+     */
+    private Long watchSeconds;
+
+    /**
+     * 最后学习时间
+     */
+    private LocalDateTime lastActivityTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
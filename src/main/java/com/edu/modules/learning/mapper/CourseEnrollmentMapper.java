@@ -2,11 +2,70 @@ package com.edu.modules.learning.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.edu.modules.learning.entity.CourseEnrollment;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 选课记录Mapper
  */
 @Mapper
 public interface CourseEnrollmentMapper extends BaseMapper<CourseEnrollment> {
-}
\ No newline at end of file
+
+    /**
+     * 用户全部有效选课的课程ID
+     */
+    @Select("SELECT course_id FROM tb_course_enrollment WHERE user_id = #{userId} AND status = 1")
+    List<Long> selectActiveCourseIds(@Param("userId") Long userId);
+
+    /**
+     * 课程下指定用户的选课记录（仅 user_id、status）
+     */
+    @Select("<script>SELECT user_id, status FROM tb_course_enrollment WHERE course_id = #{courseId} AND user_id IN "
+            + "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<CourseEnrollment> selectByCourseAndUsers(@Param("courseId") Long courseId,
+                                                  @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 新增选课，uk_user_course 已存在时忽略（影响行数为0）
+     */
+    @Insert("INSERT IGNORE INTO tb_course_enrollment (user_id, course_id, enroll_time, status) "
+            + "VALUES (#{userId}, #{courseId}, NOW(), 1)")
+    int insertIgnore(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    /**
+     * 恢复已取消的选课（影响行数为0表示不是取消状态）
+     */
+    @Update("UPDATE tb_course_enrollment SET status = 1, enroll_time = NOW() "
+            + "WHERE user_id = #{userId} AND course_id = #{courseId} AND status = 0")
+    int reactivate(@Param("userId") Long userId, @Param("courseId") Long courseId);
+
+    /**
+     * 已完成课时数增量，并按课程当前课时数重新计算完成百分比
+     * （单表更新按从左到右赋值，progress 使用的是更新后的 completed_lessons）
+     */
+    @Update("UPDATE tb_course_enrollment SET "
+            + "completed_lessons = GREATEST(completed_lessons + #{delta}, 0), "
+            + "progress = LEAST(100, FLOOR(completed_lessons * 100 / "
+            + "GREATEST((SELECT c.lesson_count FROM tb_course c WHERE c.id = #{courseId}), 1))) "
+            + "WHERE user_id = #{userId} AND course_id = #{courseId}")
+    int addCompletedLessons(@Param("userId") Long userId, @Param("courseId") Long courseId, @Param("delta") int delta);
+
+    /**
+     * 按ID区间 (afterId, toId] 重新计算已完成课时数与完成百分比
+     */
+    @Update("UPDATE tb_course_enrollment e SET "
+            + "completed_lessons = (SELECT COUNT(*) FROM tb_learning_progress p "
+            + "JOIN tb_course_lesson l ON l.id = p.lesson_id JOIN tb_course_chapter ch ON ch.id = l.chapter_id "
+            + "WHERE p.user_id = e.user_id AND p.completed = 1 AND ch.course_id = e.course_id "
+            + "AND ch.status = 1 AND ch.deleted = 0 AND l.status = 1 AND l.deleted = 0), "
+            + "progress = LEAST(100, FLOOR(completed_lessons * 100 / "
+            + "GREATEST((SELECT c.lesson_count FROM tb_course c WHERE c.id = e.course_id), 1))) "
+            + "WHERE e.id > #{afterId} AND e.id <= #{toId}")
+    int reconcileRange(@Param("afterId") long afterId, @Param("toId") long toId);
+}
@@ -2,11 +2,58 @@ package com.edu.modules.learning.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.edu.modules.learning.entity.LearningProgress;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 学习进度Mapper
  */
 @Mapper
 public interface LearningProgressMapper extends BaseMapper<LearningProgress> {
-}
\ No newline at end of file
+
+    /**
+     * 按 uk_user_lesson 插入或合并进度：进度与完成标记只增不减，观看区间只接受观看时长不减少的新值，
+     * 播放位置与访问时间只接受更新的心跳，lastPosition 为空时保留原播放位置
+     * （赋值从左到右生效，watched_intervals 须在 duration 之前，last_position 须在 last_access_time 之前）；
+     * 已存在时通过 LAST_INSERT_ID(id) 返回原记录ID
+     */
+    String UPSERT_PROGRESS = "INSERT INTO tb_learning_progress (user_id, lesson_id, progress, last_position, duration, watched_intervals, completed, last_access_time) "
+            + "VALUES (#{userId}, #{lessonId}, #{progress}, IFNULL(#{lastPosition}, 0), IFNULL(#{duration}, 0), #{watchedIntervals}, #{completed}, #{lastAccessTime}) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "progress = GREATEST(progress, VALUES(progress)), "
+            + "completed = GREATEST(completed, VALUES(completed)), "
+            + "watched_intervals = IF(VALUES(duration) >= duration, VALUES(watched_intervals), watched_intervals), "
+            + "duration = GREATEST(duration, VALUES(duration)), "
+            + "last_position = IF(#{lastPosition} IS NOT NULL AND VALUES(last_access_time) >= last_access_time, "
+            + "VALUES(last_position), last_position), "
+            + "last_access_time = GREATEST(last_access_time, VALUES(last_access_time)), "
+            + "id = LAST_INSERT_ID(id)";
+
+    /**
+     * 插入或合并进度（批量写回使用，不回填ID）
+     */
+    @Insert(UPSERT_PROGRESS)
+    int upsertProgress(LearningProgress progress);
+
+    /**
+     * 插入或合并进度，回填记录ID（单条同步写入使用）
+     */
+    @Insert(UPSERT_PROGRESS)
+    @Options(useGeneratedKeys = true, keyProperty = "id", keyColumn = "id")
+    int upsertProgressReturningId(LearningProgress progress);
+
+    /**
+     * 查询用户在某课程下的课时进度（经 tb_course_lesson、tb_course_chapter 关联），按最后访问时间倒序
+     */
+    @Select("SELECT p.* FROM tb_learning_progress p "
+            + "JOIN tb_course_lesson l ON l.id = p.lesson_id AND l.deleted = 0 "
+            + "JOIN tb_course_chapter ch ON ch.id = l.chapter_id AND ch.deleted = 0 "
+            + "WHERE p.user_id = #{userId} AND ch.course_id = #{courseId} "
+            + "ORDER BY p.last_access_time DESC")
+    List<LearningProgress> selectByUserAndCourse(@Param("userId") Long userId, @Param("courseId") Long courseId);
+}
@@ -0,0 +1,49 @@
+package com.edu.modules.learning.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.edu.modules.learning.entity.LearningSummary;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 学习统计Mapper
+ */
+@Mapper
+public interface LearningSummaryMapper extends BaseMapper<LearningSummary> {
+
+    /**
+     * 累加增量；统计行不存在时不创建，由 rebuildUser / rebuildRange 从进度表聚合生成
+     */
+    @Update("UPDATE tb_learning_summary SET "
+            + "lessons_touched = GREATEST(lessons_touched + #{touched}, 0), "
+            + "lessons_completed = GREATEST(lessons_completed + #{completed}, 0), "
+            + "watch_seconds = GREATEST(watch_seconds + #{watchSeconds}, 0), "
+            + "last_activity_time = IF(last_activity_time IS NULL OR last_activity_time < #{lastActivity}, #{lastActivity}, last_activity_time) "
+            + "WHERE user_id = #{userId}")
+    int addDeltas(@Param("userId") Long userId, @Param("touched") int touched, @Param("completed") int completed,
+                  @Param("watchSeconds") long watchSeconds, @Param("lastActivity") LocalDateTime lastActivity);
+
+    /**
+     * 从进度表聚合生成单个用户的统计行
+     */
+    @Insert("INSERT INTO tb_learning_summary (user_id, lessons_touched, lessons_completed, watch_seconds, last_activity_time) "
+            + "SELECT #{userId}, COUNT(*), COALESCE(SUM(completed = 1), 0), COALESCE(SUM(duration), 0), MAX(last_access_time) "
+            + "FROM tb_learning_progress WHERE user_id = #{userId} "
+            + "ON DUPLICATE KEY UPDATE lessons_touched = VALUES(lessons_touched), lessons_completed = VALUES(lessons_completed), "
+            + "watch_seconds = VALUES(watch_seconds), last_activity_time = VALUES(last_activity_time)")
+    int rebuildUser(@Param("userId") Long userId);
+
+    /**
+     * 按用户ID区间 (afterId, toId] 从进度表聚合重建统计行
+     */
+    @Insert("INSERT INTO tb_learning_summary (user_id, lessons_touched, lessons_completed, watch_seconds, last_activity_time) "
+            + "SELECT user_id, COUNT(*), SUM(completed = 1), COALESCE(SUM(duration), 0), MAX(last_access_time) "
+            + "FROM tb_learning_progress WHERE user_id > #{afterId} AND user_id <= #{toId} GROUP BY user_id "
+            + "ON DUPLICATE KEY UPDATE lessons_touched = VALUES(lessons_touched), lessons_completed = VALUES(lessons_completed), "
+            + "watch_seconds = VALUES(watch_seconds), last_activity_time = VALUES(last_activity_time)")
+    int rebuildRange(@Param("afterId") long afterId, @Param("toId") long toId);
+}
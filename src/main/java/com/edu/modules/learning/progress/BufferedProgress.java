@@ -0,0 +1,97 @@
+package com.edu.modules.learning.progress;
+
+/**
+ * 缓冲中的学习进度（不可变）
+ * 合并规则：上报进度取最大值，播放位置取最近一次心跳，完成标记只增不减，观看区间取并集
+ */
+public final class BufferedProgress {
+
+    private final long userId;
+    private final long lessonId;
+    private final int progress;
+    private final int lastPosition;
+    private final boolean completed;
+    private final long accessTime;
+    private final WatchIntervals intervals;
+
+    public BufferedProgress(long userId, long lessonId, int progress, int lastPosition, boolean completed, long accessTime,
+                            WatchIntervals intervals) {
+        this.userId = userId;
+        this.lessonId = lessonId;
+        this.progress = progress;
+        this.lastPosition = lastPosition;
+        this.completed = completed;
+        this.accessTime = accessTime;
+        this.intervals = intervals != null ? intervals : new WatchIntervals();
+    }
+
+    public BufferedProgress merge(BufferedProgress other) {
+        BufferedProgress latest = other.accessTime >= accessTime ? other : this;
+        WatchIntervals union = intervals.copy();
+        union.addAll(other.intervals);
+        return new BufferedProgress(userId, lessonId,
+                Math.max(progress, other.progress),
+                latest.lastPosition,
+                completed || other.completed,
+                latest.accessTime,
+                union);
+    }
+
+    public String key() {
+        return key(userId, lessonId);
+    }
+
+    public static String key(long userId, long lessonId) {
+        return userId + ":" + lessonId;
+    }
+
+    /**
+     * 编码为 progress:lastPosition:completed:accessTime:intervals
+     */
+    public String encode() {
+        return progress + ":" + lastPosition + ":" + (completed ? 1 : 0) + ":" + accessTime + ":" + intervals.encode();
+    }
+
+    public static BufferedProgress decode(String key, String value) {
+        String[] ids = key.split(":");
+        String[] parts = value.split(":", 5);
+        return new BufferedProgress(Long.parseLong(ids[0]), Long.parseLong(ids[1]),
+                Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                "1".equals(parts[2]), Long.parseLong(parts[3]),
+                WatchIntervals.decode(parts.length > 4 ? parts[4] : null));
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getLessonId() {
+        return lessonId;
+    }
+
+    /**
+     * 客户端上报的进度（仅用于没有时长的课时）
+     */
+    public int getProgress() {
+        return progress;
+    }
+
+    public int getLastPosition() {
+        return lastPosition;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public long getAccessTime() {
+        return accessTime;
+    }
+
+    /**
+     * 观看区间（只读）
+     */
+    public WatchIntervals getIntervals() {
+        return intervals;
+    }
+}
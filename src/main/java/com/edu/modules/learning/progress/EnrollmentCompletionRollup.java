@@ -0,0 +1,100 @@
+package com.edu.modules.learning.progress;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.edu.modules.course.service.CourseLessonService;
+import com.edu.modules.learning.entity.CourseEnrollment;
+import com.edu.modules.learning.mapper.CourseEnrollmentMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 选课完成度汇总
+ * 课时由未完成变为完成时，对应选课记录的已完成课时数增量更新并重算完成百分比；
+ * 课时增删导致的百分比变化及多节点重复计数由定期对账按ID区间重新计算修正
+ */
+@Slf4j
+@Component
+public class EnrollmentCompletionRollup {
+
+    private static final Log BATCH_LOG = LogFactory.getLog(EnrollmentCompletionRollup.class);
+
+    @Autowired
+    private CourseEnrollmentMapper courseEnrollmentMapper;
+
+    @Autowired
+    private CourseLessonService courseLessonService;
+
+    @Value("${business.learning.progress.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 一批课时变为完成
+     *
+     * @param userLessons [用户ID, 课时ID]
+     */
+    public void lessonsCompleted(Collection<long[]> userLessons) {
+        if (userLessons.isEmpty()) {
+            return;
+        }
+        // (用户ID, 课程ID) -> 新完成课时数
+        // 整批课时所属课程一次关联查询
+        Set<Long> lessonIds = new HashSet<>();
+        for (long[] userLesson : userLessons) {
+            lessonIds.add(userLesson[1]);
+        }
+        Map<Long, Long> courseIds = courseLessonService.getCourseIdsByLessonIds(lessonIds);
+        Map<String, long[]> deltas = new HashMap<>();
+        for (long[] userLesson : userLessons) {
+            Long courseId = courseIds.get(userLesson[1]);
+            if (courseId != null) {
+                deltas.computeIfAbsent(userLesson[0] + ":" + courseId, k -> new long[]{userLesson[0], courseId, 0})[2]++;
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            SqlHelper.executeBatch(CourseEnrollment.class, BATCH_LOG, deltas.values(), batchSize, (sqlSession, delta) ->
+                    sqlSession.getMapper(CourseEnrollmentMapper.class).addCompletedLessons(delta[0], delta[1], (int) delta[2]));
+        } catch (Exception e) {
+            // 偏差由定期对账修正
+            log.warn("选课完成度更新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按ID区间分批重新计算全部选课记录的完成度
+     */
+    @Scheduled(initialDelayString = "${business.learning.progress.reconcile-interval:3600000}",
+            fixedDelayString = "${business.learning.progress.reconcile-interval:3600000}")
+    public void reconcile() {
+        try {
+            LambdaQueryWrapper<CourseEnrollment> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(CourseEnrollment::getId).orderByDesc(CourseEnrollment::getId).last("limit 1");
+            CourseEnrollment last = courseEnrollmentMapper.selectOne(wrapper);
+            if (last == null) {
+                return;
+            }
+            long maxId = last.getId();
+            int updated = 0;
+            for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+                updated += courseEnrollmentMapper.reconcileRange(afterId, Math.min(afterId + batchSize, maxId));
+            }
+            log.info("选课完成度对账完成: {} 条选课记录", updated);
+        } catch (Exception e) {
+            log.warn("选课完成度对账失败: {}", e.getMessage());
+        }
+    }
+}
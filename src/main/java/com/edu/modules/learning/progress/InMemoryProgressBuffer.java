@@ -0,0 +1,60 @@
+package com.edu.modules.learning.progress;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 本机内存进度缓冲（单节点部署）
+ */
+@Component
+@ConditionalOnProperty(prefix = "business.learning.progress", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryProgressBuffer implements ProgressBuffer {
+
+    private final Map<String, BufferedProgress> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void merge(BufferedProgress heartbeat) {
+        entries.merge(heartbeat.key(), heartbeat, BufferedProgress::merge);
+    }
+
+    @Override
+    public BufferedProgress get(long userId, long lessonId) {
+        return entries.get(BufferedProgress.key(userId, lessonId));
+    }
+
+    @Override
+    public Map<Long, BufferedProgress> get(long userId, Collection<Long> lessonIds) {
+        Map<Long, BufferedProgress> found = new HashMap<>();
+        for (Long lessonId : lessonIds) {
+            BufferedProgress entry = entries.get(BufferedProgress.key(userId, lessonId));
+            if (entry != null) {
+                found.put(lessonId, entry);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<BufferedProgress> drain() {
+        List<BufferedProgress> drained = new ArrayList<>(entries.size());
+        for (String key : entries.keySet()) {
+            BufferedProgress entry = entries.remove(key);
+            if (entry != null) {
+                drained.add(entry);
+            }
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,219 @@
+package com.edu.modules.learning.progress;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.edu.modules.learning.entity.LearningProgress;
+import com.edu.modules.learning.entity.LearningSummary;
+import com.edu.modules.learning.mapper.LearningProgressMapper;
+import com.edu.modules.learning.mapper.LearningSummaryMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 用户学习统计聚合器（写后异步落库）
+ * 进度写入路径产生的增量（新学习的课时、新完成的课时、新增观看秒数）按用户分段累加，
+ * 定期以批量语句写回统计表；统计行不存在时由读取方按需从进度表聚合生成，
+ * 另有定期任务按用户ID区间从进度表全量重建，修正多节点并发造成的偏差
+ */
+@Slf4j
+@Component
+public class LearningSummaryAggregator {
+
+    private static final int STRIPES = 16;
+    private static final Log BATCH_LOG = LogFactory.getLog(LearningSummaryAggregator.class);
+
+    @Autowired
+    private LearningSummaryMapper learningSummaryMapper;
+
+    @Autowired
+    private LearningProgressMapper learningProgressMapper;
+
+    @Value("${business.learning.summary.batch-size:500}")
+    private int batchSize;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * 增量记录持有读锁，区间重建持有写锁
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public LearningSummaryAggregator() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 记录一次进度写入带来的统计变化
+     *
+     * @param touched      新学习的课时数
+     * @param completed    新完成的课时数
+     * @param watchSeconds 新增观看秒数
+     */
+    public void add(Long userId, int touched, int completed, long watchSeconds, LocalDateTime lastActivity) {
+        if (userId == null) {
+            return;
+        }
+        Lock lock = rebuildLock.readLock();
+        lock.lock();
+        try {
+            Stripe stripe = stripe(userId);
+            synchronized (stripe) {
+                Delta delta = stripe.delta(userId);
+                delta.touched += touched;
+                delta.completed += completed;
+                delta.watchSeconds += Math.max(watchSeconds, 0);
+                if (lastActivity != null && (delta.lastActivity == null || lastActivity.isAfter(delta.lastActivity))) {
+                    delta.lastActivity = lastActivity;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 读取用户统计；统计行不存在时先从进度表聚合生成
+     */
+    public LearningSummary get(Long userId) {
+        LearningSummary summary = learningSummaryMapper.selectById(userId);
+        if (summary == null) {
+            rebuildUser(userId);
+            summary = learningSummaryMapper.selectById(userId);
+        }
+        return summary;
+    }
+
+    /**
+     * 从进度表聚合生成单个用户的统计行
+     * 增量在进度写入成功后才计入，聚合结果已包含该用户尚未写回的增量，须先丢弃以免写回时重复累加；
+     * 与 flush 互斥，避免已取出、正在写回的增量落在聚合之后；持有分段锁期间该用户的新增量排在聚合之后
+     */
+    private synchronized void rebuildUser(Long userId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            stripe.deltas.remove(userId);
+            learningSummaryMapper.rebuildUser(userId);
+        }
+    }
+
+    /**
+     * 将累计的增量写回数据库，失败时放回继续累计
+     */
+    @Scheduled(fixedDelayString = "${business.learning.summary.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Map.Entry<Long, Delta>> pending = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, Delta> drained;
+            synchronized (stripe) {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                drained = stripe.deltas;
+                stripe.deltas = new HashMap<>();
+            }
+            pending.addAll(drained.entrySet());
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            SqlHelper.executeBatch(LearningSummary.class, BATCH_LOG, pending, batchSize, (sqlSession, entry) -> {
+                Delta delta = entry.getValue();
+                sqlSession.getMapper(LearningSummaryMapper.class).addDeltas(entry.getKey(),
+                        delta.touched, delta.completed, delta.watchSeconds, delta.lastActivity);
+            });
+            log.debug("学习统计增量已写回: {} 个用户", pending.size());
+        } catch (Exception e) {
+            log.warn("学习统计增量写回失败，稍后重试: {}", e.getMessage());
+            for (Map.Entry<Long, Delta> entry : pending) {
+                Delta delta = entry.getValue();
+                add(entry.getKey(), delta.touched, delta.completed, delta.watchSeconds, delta.lastActivity);
+            }
+        }
+    }
+
+    /**
+     * 按用户ID区间分批从进度表重建全部统计行
+     * 与 rebuildUser 相同：区间重建结果已包含该区间尚未写回的增量，重建后在写锁内丢弃；与 flush 互斥
+     */
+    @Scheduled(initialDelayString = "${business.learning.summary.rebuild-interval:86400000}",
+            fixedDelayString = "${business.learning.summary.rebuild-interval:86400000}")
+    public synchronized void rebuild() {
+        flush();
+        try {
+            LambdaQueryWrapper<LearningProgress> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(LearningProgress::getUserId).orderByDesc(LearningProgress::getUserId).last("limit 1");
+            LearningProgress last = learningProgressMapper.selectOne(wrapper);
+            if (last == null) {
+                return;
+            }
+            long maxId = last.getUserId();
+            int updated = 0;
+            for (long afterId = 0; afterId < maxId; afterId += batchSize) {
+                updated += rebuildRange(afterId, Math.min(afterId + batchSize, maxId));
+            }
+            log.info("学习统计重建完成: {} 行", updated);
+        } catch (Exception e) {
+            log.warn("学习统计重建失败: {}", e.getMessage());
+        }
+    }
+
+    private int rebuildRange(long afterId, long toId) {
+        Lock lock = rebuildLock.writeLock();
+        lock.lock();
+        try {
+            int updated = learningSummaryMapper.rebuildRange(afterId, toId);
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.deltas.keySet().removeIf(id -> id > afterId && id <= toId);
+                }
+            }
+            return updated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Stripe stripe(Long userId) {
+        int h = userId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private Map<Long, Delta> deltas = new HashMap<>();
+
+        private Delta delta(Long userId) {
+            return deltas.computeIfAbsent(userId, k -> new Delta());
+        }
+    }
+
+    private static final class Delta {
+        private int touched;
+        private int completed;
+        private long watchSeconds;
+        private LocalDateTime lastActivity;
+    }
+}
@@ -0,0 +1,44 @@
+package com.edu.modules.learning.progress;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 学习进度缓冲存储，按 (用户ID, 课时ID) 合并心跳
+ */
+public interface ProgressBuffer {
+
+    /**
+     * 合并一次心跳
+     */
+    void merge(BufferedProgress heartbeat);
+
+    /**
+     * 获取缓冲中尚未落库的进度，不存在时返回null
+     */
+    BufferedProgress get(long userId, long lessonId);
+
+    /**
+     * 一次取出同一用户多个课时的缓冲进度
+     *
+     * @return 课时ID -> 缓冲值，不含没有缓冲的课时
+     */
+    Map<Long, BufferedProgress> get(long userId, Collection<Long> lessonIds);
+
+    /**
+     * 取出并清空全部缓冲
+     */
+    List<BufferedProgress> drain();
+
+    /**
+     * 落库失败时放回缓冲，与期间到达的新心跳合并
+     */
+    default void restore(Collection<BufferedProgress> entries) {
+        for (BufferedProgress entry : entries) {
+            merge(entry);
+        }
+    }
+
+    int size();
+}
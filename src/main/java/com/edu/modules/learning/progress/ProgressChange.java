@@ -0,0 +1,75 @@
+package com.edu.modules.learning.progress;
+
+import com.edu.modules.learning.entity.LearningProgress;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一次进度写入前后的差异，用于增量维护派生统计
+ */
+public final class ProgressChange {
+
+    private final boolean existed;
+    private final boolean wasCompleted;
+    private final int oldDuration;
+    private Long userId;
+    private Long lessonId;
+    private boolean completed;
+    private int newDuration;
+    private LocalDateTime lastActivity;
+
+    private ProgressChange(LearningProgress before) {
+        this.existed = before != null && before.getId() != null;
+        this.wasCompleted = before != null && Integer.valueOf(1).equals(before.getCompleted());
+        this.oldDuration = before != null && before.getDuration() != null ? before.getDuration() : 0;
+    }
+
+    /**
+     * 记录写入前的库中状态，须在合并修改记录之前调用
+     *
+     * @param before 库中记录，不存在时为null
+     */
+    public static ProgressChange before(LearningProgress before) {
+        return new ProgressChange(before);
+    }
+
+    /**
+     * 记录写入的新状态
+     */
+    public ProgressChange after(LearningProgress after) {
+        this.userId = after.getUserId();
+        this.lessonId = after.getLessonId();
+        this.completed = wasCompleted || Integer.valueOf(1).equals(after.getCompleted());
+        this.newDuration = after.getDuration() != null ? Math.max(after.getDuration(), oldDuration) : oldDuration;
+        this.lastActivity = after.getLastAccessTime();
+        return this;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public boolean isCompletedBefore() {
+        return wasCompleted;
+    }
+
+    public boolean isNewlyTouched() {
+        return !existed;
+    }
+
+    public boolean isNewlyCompleted() {
+        return !wasCompleted && completed;
+    }
+
+    public long getWatchSecondsDelta() {
+        return newDuration - oldDuration;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+}
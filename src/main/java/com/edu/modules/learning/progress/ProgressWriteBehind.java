@@ -0,0 +1,342 @@
+package com.edu.modules.learning.progress;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.edu.modules.course.service.CourseLessonService;
+import com.edu.modules.learning.entity.LearningProgress;
+import com.edu.modules.learning.mapper.LearningProgressMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 学习进度写后缓冲
+ * 播放器心跳只合并进缓冲（同一课时保留最新播放位置与观看区间的并集），
+ * 定期与库中已有区间合并后以批量 upsert 写回数据库，停机时也会写回；读取进度时叠加缓冲中尚未落库的值。
+ * 有时长的课时，进度与完成标记由观看区间的覆盖率计算，不采信客户端上报的进度
+ */
+@Slf4j
+@Component
+public class ProgressWriteBehind {
+
+    private static final Log BATCH_LOG = LogFactory.getLog(ProgressWriteBehind.class);
+    private static final int MAX_SNAPSHOTS = 100000;
+
+    @Autowired
+    private ProgressBuffer buffer;
+
+    @Autowired
+    private WatchSegmentTracker watchSegmentTracker;
+
+    @Autowired
+    private LearningProgressMapper learningProgressMapper;
+
+    @Autowired
+    private CourseLessonService courseLessonService;
+
+    @Autowired
+    private EnrollmentCompletionRollup enrollmentCompletionRollup;
+
+    @Autowired
+    private LearningSummaryAggregator learningSummaryAggregator;
+
+    @Value("${business.learning.progress.batch-size:500}")
+    private int batchSize;
+
+    @Value("${business.learning.progress.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${business.learning.progress.completion-coverage:90}")
+    private int completionCoverage;
+
+    @Value("${business.learning.progress.snapshot-ttl:60000}")
+    private long snapshotTtl;
+
+    /**
+     * 心跳响应使用的库中记录快照（仅合并所需字段，null 表示尚无记录），
+     * 首次心跳时查询一次，本机写回后就地更新；其他节点写回的结果在 snapshot-ttl 内可能滞后
+     */
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 将心跳转换为缓冲值（识别本次心跳确认的观看区间），不写入缓冲
+     */
+    public BufferedProgress heartbeat(Long userId, Long lessonId, Integer progress, Integer lastPosition) {
+        long now = System.currentTimeMillis();
+        int position = lastPosition != null ? lastPosition : 0;
+        WatchIntervals intervals = new WatchIntervals();
+        if (lastPosition != null) {
+            int[] segment = watchSegmentTracker.advance(userId, lessonId, position, now);
+            if (segment != null) {
+                intervals.add(segment[0], segment[1]);
+            }
+        }
+        int value = progress != null ? progress : 0;
+        return new BufferedProgress(userId, lessonId, value, position, value >= 100, now, intervals);
+    }
+
+    /**
+     * 记录一次心跳并返回合并后的进度；库中记录取自快照，不逐次查询数据库
+     */
+    public LearningProgress record(Long userId, Long lessonId, Integer progress, Integer lastPosition) {
+        BufferedProgress heartbeat = heartbeat(userId, lessonId, progress, lastPosition);
+        buffer.merge(heartbeat);
+        if (buffer.size() > maxEntries) {
+            flush(); // 缓冲超过上限时立即写回，避免内存无限增长
+        }
+        BufferedProgress pending = buffer.get(userId, lessonId);
+        return resolve(copyOf(snapshot(userId, lessonId)), pending != null ? pending : heartbeat,
+                courseLessonService.getLessonDurations(Collections.singletonList(lessonId)).get(lessonId));
+    }
+
+    /**
+     * 绕过缓冲直接写入记录后，丢弃对应的快照
+     */
+    public void forget(Long userId, Long lessonId) {
+        snapshots.remove(BufferedProgress.key(userId, lessonId));
+    }
+
+    /**
+     * 将缓冲中的值叠加到数据库记录上
+     *
+     * @param stored 数据库中的记录，可为null
+     * @return 合并后的记录；两者都不存在时返回null
+     */
+    public LearningProgress overlay(Long userId, Long lessonId, LearningProgress stored) {
+        BufferedProgress pending = buffer.get(userId, lessonId);
+        if (pending == null) {
+            return stored;
+        }
+        return resolve(stored, pending, courseLessonService.getLessonDurations(Collections.singletonList(lessonId)).get(lessonId));
+    }
+
+    /**
+     * 将缓冲中的值批量叠加到同一用户多个课时的数据库记录上，缓冲与课时时长各只读取一次
+     *
+     * @param lessonIds 需要叠加的课时
+     * @param stored    课时ID -> 数据库中的记录，可缺失
+     * @return 课时ID -> 合并后的记录，不含两者都不存在的课时
+     */
+    public Map<Long, LearningProgress> overlay(Long userId, Collection<Long> lessonIds, Map<Long, LearningProgress> stored) {
+        Map<Long, BufferedProgress> pending = buffer.get(userId, lessonIds);
+        Map<Long, Integer> durations = pending.isEmpty()
+                ? Collections.emptyMap() : courseLessonService.getLessonDurations(pending.keySet());
+        Map<Long, LearningProgress> result = new HashMap<>();
+        for (Long lessonId : lessonIds) {
+            BufferedProgress entry = pending.get(lessonId);
+            LearningProgress record = stored.get(lessonId);
+            if (entry != null) {
+                result.put(lessonId, resolve(record, entry, durations.get(lessonId)));
+            } else if (record != null) {
+                result.put(lessonId, record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 合并库中记录与缓冲值：观看区间取并集并据此计算观看时长，
+     * 有时长的课时按覆盖率计算进度与完成标记，没有时长的课时沿用上报的进度
+     *
+     * @param stored         库中记录，可为null
+     * @param lessonDuration 课时时长（秒），未知时为null
+     */
+    public LearningProgress resolve(LearningProgress stored, BufferedProgress pending, Integer lessonDuration) {
+        LearningProgress result = stored != null ? stored : new LearningProgress();
+        if (stored == null) {
+            result.setUserId(pending.getUserId());
+            result.setLessonId(pending.getLessonId());
+        }
+        int storedProgress = result.getProgress() != null ? result.getProgress() : 0;
+        boolean storedCompleted = Integer.valueOf(1).equals(result.getCompleted());
+
+        WatchIntervals intervals = WatchIntervals.decode(result.getWatchedIntervals());
+        intervals.addAll(pending.getIntervals());
+        result.setWatchedIntervals(intervals.isEmpty() ? null : intervals.encode());
+        result.setDuration(intervals.length());
+
+        if (lessonDuration != null && lessonDuration > 0) {
+            int coverage = intervals.coverage(lessonDuration);
+            result.setProgress(Math.max(storedProgress, coverage));
+            result.setCompleted(storedCompleted || coverage >= completionCoverage ? 1 : 0);
+        } else {
+            result.setProgress(Math.max(storedProgress, pending.getProgress()));
+            result.setCompleted(storedCompleted || pending.isCompleted() ? 1 : 0);
+        }
+
+        LocalDateTime accessTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(pending.getAccessTime()), ZoneId.systemDefault());
+        if (result.getLastAccessTime() == null || !result.getLastAccessTime().isAfter(accessTime)) {
+            result.setLastPosition(pending.getLastPosition());
+            result.setLastAccessTime(accessTime);
+        }
+        return result;
+    }
+
+    /**
+     * 查询合并所需的库中字段
+     */
+    public LearningProgress loadStored(Long userId, Long lessonId) {
+        LambdaQueryWrapper<LearningProgress> wrapper = mergeColumns();
+        wrapper.eq(LearningProgress::getUserId, userId)
+                .eq(LearningProgress::getLessonId, lessonId);
+        return learningProgressMapper.selectOne(wrapper);
+    }
+
+    /**
+     * 进度写入成功后，把变化增量计入选课完成度与用户学习统计
+     */
+    public void applied(List<ProgressChange> changes) {
+        List<long[]> newlyCompleted = new ArrayList<>();
+        for (ProgressChange change : changes) {
+            if (change.isNewlyCompleted()) {
+                newlyCompleted.add(new long[]{change.getUserId(), change.getLessonId()});
+            }
+            learningSummaryAggregator.add(change.getUserId(), change.isNewlyTouched() ? 1 : 0,
+                    change.isNewlyCompleted() ? 1 : 0, change.getWatchSecondsDelta(), change.getLastActivity());
+        }
+        enrollmentCompletionRollup.lessonsCompleted(newlyCompleted);
+    }
+
+    /**
+     * 批量写回缓冲，失败时放回继续累计
+     */
+    @Scheduled(fixedDelayString = "${business.learning.progress.flush-interval:5000}")
+    public synchronized void flush() {
+        List<BufferedProgress> pending = buffer.drain();
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            Set<Long> lessonIds = new HashSet<>();
+            for (BufferedProgress entry : pending) {
+                lessonIds.add(entry.getLessonId());
+            }
+            Map<Long, Integer> durations = courseLessonService.getLessonDurations(lessonIds);
+            Map<String, LearningProgress> stored = loadStored(pending);
+
+            List<LearningProgress> rows = new ArrayList<>(pending.size());
+            List<ProgressChange> changes = new ArrayList<>(pending.size());
+            for (BufferedProgress entry : pending) {
+                LearningProgress current = stored.get(entry.key());
+                ProgressChange change = ProgressChange.before(current);
+                LearningProgress row = resolve(current, entry, durations.get(entry.getLessonId()));
+                changes.add(change.after(row));
+                rows.add(row);
+            }
+            SqlHelper.executeBatch(LearningProgress.class, BATCH_LOG, rows, batchSize,
+                    (sqlSession, row) -> sqlSession.getMapper(LearningProgressMapper.class).upsertProgress(row));
+            log.debug("学习进度已写回: {} 条", pending.size());
+            long now = System.currentTimeMillis();
+            for (LearningProgress row : rows) {
+                snapshots.computeIfPresent(BufferedProgress.key(row.getUserId(), row.getLessonId()),
+                        (key, old) -> new Snapshot(row, now));
+            }
+            applied(changes);
+        } catch (Exception e) {
+            log.warn("学习进度写回失败，稍后重试: {}", e.getMessage());
+            buffer.restore(pending);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 查询本次写回涉及的库中记录：按 batchSize 分段，每段按用户分组一次查询，避免单条语句过大
+     */
+    private Map<String, LearningProgress> loadStored(List<BufferedProgress> pending) {
+        Map<String, LearningProgress> stored = new HashMap<>();
+        int chunk = Math.max(1, batchSize);
+        for (int from = 0; from < pending.size(); from += chunk) {
+            Map<Long, List<Long>> lessonsByUser = new HashMap<>();
+            for (BufferedProgress entry : pending.subList(from, Math.min(from + chunk, pending.size()))) {
+                lessonsByUser.computeIfAbsent(entry.getUserId(), k -> new ArrayList<>()).add(entry.getLessonId());
+            }
+            LambdaQueryWrapper<LearningProgress> wrapper = mergeColumns();
+            for (Map.Entry<Long, List<Long>> entry : lessonsByUser.entrySet()) {
+                wrapper.or(w -> w.eq(LearningProgress::getUserId, entry.getKey())
+                        .in(LearningProgress::getLessonId, entry.getValue()));
+            }
+            for (LearningProgress row : learningProgressMapper.selectList(wrapper)) {
+                stored.put(BufferedProgress.key(row.getUserId(), row.getLessonId()), row);
+            }
+        }
+        return stored;
+    }
+
+    private LearningProgress snapshot(Long userId, Long lessonId) {
+        String key = BufferedProgress.key(userId, lessonId);
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null || now - snapshot.loadedAt > snapshotTtl) {
+            snapshot = new Snapshot(loadStored(userId, lessonId), now);
+            snapshots.put(key, snapshot);
+            if (snapshots.size() > MAX_SNAPSHOTS) {
+                snapshots.values().removeIf(s -> now - s.loadedAt > snapshotTtl);
+                if (snapshots.size() > MAX_SNAPSHOTS) {
+                    snapshots.clear();
+                }
+            }
+        }
+        return snapshot.row;
+    }
+
+    /**
+     * 复制合并所需字段，resolve 会修改传入的记录
+     */
+    private static LearningProgress copyOf(LearningProgress row) {
+        if (row == null) {
+            return null;
+        }
+        LearningProgress copy = new LearningProgress();
+        copy.setId(row.getId());
+        copy.setUserId(row.getUserId());
+        copy.setLessonId(row.getLessonId());
+        copy.setProgress(row.getProgress());
+        copy.setLastPosition(row.getLastPosition());
+        copy.setDuration(row.getDuration());
+        copy.setCompleted(row.getCompleted());
+        copy.setWatchedIntervals(row.getWatchedIntervals());
+        copy.setLastAccessTime(row.getLastAccessTime());
+        return copy;
+    }
+
+    private static LambdaQueryWrapper<LearningProgress> mergeColumns() {
+        LambdaQueryWrapper<LearningProgress> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(LearningProgress::getId, LearningProgress::getUserId, LearningProgress::getLessonId,
+                LearningProgress::getProgress, LearningProgress::getLastPosition, LearningProgress::getDuration,
+                LearningProgress::getCompleted,
+                LearningProgress::getWatchedIntervals, LearningProgress::getLastAccessTime);
+        return wrapper;
+    }
+
+    private static final class Snapshot {
+        private final LearningProgress row;
+        private final long loadedAt;
+
+        private Snapshot(LearningProgress row, long loadedAt) {
+            this.row = row;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
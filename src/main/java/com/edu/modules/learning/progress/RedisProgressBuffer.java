@@ -0,0 +1,107 @@
+package com.edu.modules.learning.progress;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis进度缓冲（多节点共享）
+ * 全部心跳存放在一个哈希中，合并与取出均由脚本原子完成，任一节点都可以负责落库
+ */
+@Component
+@ConditionalOnProperty(prefix = "business.learning.progress", name = "store", havingValue = "redis")
+public class RedisProgressBuffer implements ProgressBuffer {
+
+    private static final String KEY = "learning:progress:buffer";
+
+    /**
+     * 值格式见 BufferedProgress.encode；观看区间直接拼接，解码时再合并为并集
+     */
+    private static final DefaultRedisScript<Long> MERGE_SCRIPT = new DefaultRedisScript<>(
+            "local old = redis.call('HGET', KEYS[1], ARGV[1]) "
+                    + "if old then "
+                    + "  local op, ol, oc, ot, oi = string.match(old, '^(%d+):(%d+):(%d+):(%d+):?(.*)$') "
+                    + "  local np, nl, nc, nt, ni = string.match(ARGV[2], '^(%d+):(%d+):(%d+):(%d+):?(.*)$') "
+                    + "  local pos, time = nl, nt "
+                    + "  if tonumber(ot) > tonumber(nt) then pos, time = ol, ot end "
+                    + "  local intervals = oi "
+                    + "  if oi == '' then intervals = ni elseif ni ~= '' then intervals = oi .. ';' .. ni end "
+                    + "  ARGV[2] = math.max(tonumber(op), tonumber(np)) .. ':' .. pos .. ':' "
+                    + "    .. math.max(tonumber(oc), tonumber(nc)) .. ':' .. time .. ':' .. intervals "
+                    + "end "
+                    + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local entries = redis.call('HGETALL', KEYS[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return entries",
+            List.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Override
+    public void merge(BufferedProgress heartbeat) {
+        redisTemplate.execute(MERGE_SCRIPT, Collections.singletonList(KEY), heartbeat.key(), heartbeat.encode());
+    }
+
+    @Override
+    public BufferedProgress get(long userId, long lessonId) {
+        String key = BufferedProgress.key(userId, lessonId);
+        Object value = redisTemplate.opsForHash().get(KEY, key);
+        return value != null ? BufferedProgress.decode(key, value.toString()) : null;
+    }
+
+    @Override
+    public Map<Long, BufferedProgress> get(long userId, Collection<Long> lessonIds) {
+        if (lessonIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // 一次 HMGET 取出全部课时
+        List<Object> keys = new ArrayList<>(lessonIds.size());
+        List<Long> ids = new ArrayList<>(lessonIds);
+        for (Long lessonId : ids) {
+            keys.add(BufferedProgress.key(userId, lessonId));
+        }
+        List<Object> values = redisTemplate.opsForHash().multiGet(KEY, keys);
+        Map<Long, BufferedProgress> found = new HashMap<>();
+        for (int i = 0; i < ids.size() && i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                found.put(ids.get(i), BufferedProgress.decode(keys.get(i).toString(), value.toString()));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<BufferedProgress> drain() {
+        List<?> flat = redisTemplate.execute(DRAIN_SCRIPT, Collections.singletonList(KEY));
+        if (flat == null || flat.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<BufferedProgress> drained = new ArrayList<>(flat.size() / 2);
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            drained.add(BufferedProgress.decode(flat.get(i).toString(), flat.get(i + 1).toString()));
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        Long size = redisTemplate.opsForHash().size(KEY);
+        return size != null ? size.intValue() : 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.edu.modules.learning.progress;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 已观看区间集合（秒，左闭右开，区间互不重叠且不相邻）
+ * 以起点为键的有序映射保存，加入一段区间只需定位前驱并吞并与之重叠的后继，
+ * 重复观看、拖动回放不会重复计时；序列化为 "起点-终点,起点-终点"
+ */
+public final class WatchIntervals {
+
+    /**
+     * 区间数上限，超过时丢弃最短的区间，保证存储长度有界；
+     * 丢弃只会少计观看时长（之后重看可再计入），不会把未观看的间隔计入覆盖率
+     */
+    static final int MAX_INTERVALS = 200;
+
+    private final TreeMap<Integer, Integer> intervals = new TreeMap<>();
+    private int length;
+
+    public WatchIntervals copy() {
+        WatchIntervals copy = new WatchIntervals();
+        copy.intervals.putAll(intervals);
+        copy.length = length;
+        return copy;
+    }
+
+    /**
+     * 加入区间 [start, end)
+     */
+    public void add(int start, int end) {
+        if (start < 0) {
+            start = 0;
+        }
+        if (end <= start) {
+            return;
+        }
+        Map.Entry<Integer, Integer> floor = intervals.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            if (floor.getValue() >= end) {
+                return;
+            }
+            start = floor.getKey();
+            length -= floor.getValue() - floor.getKey();
+            intervals.remove(floor.getKey());
+        }
+        Map.Entry<Integer, Integer> next = intervals.ceilingEntry(start);
+        while (next != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            length -= next.getValue() - next.getKey();
+            intervals.remove(next.getKey());
+            next = intervals.higherEntry(next.getKey());
+        }
+        intervals.put(start, end);
+        length += end - start;
+        if (intervals.size() > MAX_INTERVALS) {
+            dropShortest();
+        }
+    }
+
+    public void addAll(WatchIntervals other) {
+        if (other == null) {
+            return;
+        }
+        for (Map.Entry<Integer, Integer> entry : other.intervals.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 实际观看的总秒数（去重后）
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return intervals.isEmpty();
+    }
+
+    /**
+     * 覆盖率百分比（0-100）
+     */
+    public int coverage(int total) {
+        if (total <= 0) {
+            return 0;
+        }
+        return (int) Math.min(100, (long) length * 100 / total);
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, Integer> entry : intervals.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry.getKey()).append('-').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 解析 encode 的结果；也接受以 ',' 或 ';' 拼接的多个结果（合并为并集）
+     */
+    public static WatchIntervals decode(String text) {
+        WatchIntervals result = new WatchIntervals();
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+        for (String part : text.split("[,;]")) {
+            int dash = part.indexOf('-');
+            if (dash > 0) {
+                result.add(Integer.parseInt(part.substring(0, dash).trim()), Integer.parseInt(part.substring(dash + 1).trim()));
+            }
+        }
+        return result;
+    }
+
+    private void dropShortest() {
+        Integer shortest = null;
+        int shortestLength = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Integer> entry : intervals.entrySet()) {
+            int size = entry.getValue() - entry.getKey();
+            if (size < shortestLength) {
+                shortestLength = size;
+                shortest = entry.getKey();
+            }
+        }
+        if (shortest != null) {
+            intervals.remove(shortest);
+            length -= shortestLength;
+        }
+    }
+
+    int size() {
+        return intervals.size();
+    }
+}
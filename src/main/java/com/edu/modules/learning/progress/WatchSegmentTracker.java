@@ -0,0 +1,63 @@
+package com.edu.modules.learning.progress;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 观看片段识别
+ * 记录每个 (用户, 课时) 上一次心跳的播放位置与时间；本次位置相对上次前进的秒数
+ * 不超过经过的墙钟时间（按最大倍速加容差）时，认为 [上次位置, 本次位置) 被实际观看，
+ * 拖动进度条、暂停后跳转等情况不计入观看区间。
+ * 游标保存在本机内存中，多节点部署时同一播放会话的心跳需路由到同一节点才能连续计时
+ */
+@Component
+public class WatchSegmentTracker {
+
+    private static final int MAX_CURSORS = 100000;
+
+    @Value("${business.learning.progress.watch.max-rate:2.0}")
+    private double maxRate;
+
+    @Value("${business.learning.progress.watch.tolerance:3}")
+    private int tolerance;
+
+    @Value("${business.learning.progress.watch.cursor-ttl:120000}")
+    private long cursorTtl;
+
+    private final Map<String, long[]> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次心跳
+     *
+     * @return 本次心跳确认的观看区间 [start, end)，无法确认时返回null
+     */
+    public int[] advance(long userId, long lessonId, int position, long now) {
+        String key = BufferedProgress.key(userId, lessonId);
+        long[] previous = cursors.put(key, new long[]{position, now});
+        if (previous == null) {
+            if (cursors.size() > MAX_CURSORS) {
+                evictExpired(now);
+            }
+            return null;
+        }
+        long elapsed = now - previous[1];
+        int start = (int) previous[0];
+        if (elapsed <= 0 || elapsed > cursorTtl || position <= start) {
+            return null;
+        }
+        if (position - start > elapsed / 1000.0 * maxRate + tolerance) {
+            return null; // 前进距离超过可能的播放速度，视为拖动
+        }
+        return new int[]{start, position};
+    }
+
+    private void evictExpired(long now) {
+        cursors.values().removeIf(cursor -> now - cursor[1] > cursorTtl);
+        if (cursors.size() > MAX_CURSORS) {
+            cursors.clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.edu.modules.learning.service;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量选课结果
+ */
+@Data
+public class BulkEnrollmentResult {
+
+    public enum Outcome {
+        /** 新增选课 */
+        ENROLLED,
+        /** 已取消的选课恢复为正常 */
+        REACTIVATED,
+        /** 已选修，未做变更 */
+        ALREADY_ENROLLED,
+        /** 与前面的行重复 */
+        DUPLICATE,
+        /** 用户不存在 */
+        USER_NOT_FOUND,
+        /** 无法解析的用户ID */
+        INVALID,
+        /** 写入失败 */
+        FAILED
+    }
+
+    @Data
+    public static class Row {
+
+        /**
+         * 行号（列表输入为序号），从1开始
+         */
+        private int line;
+
+        private Long userId;
+
+        private Outcome outcome;
+
+        private String message;
+    }
+
+    private Long courseId;
+
+    /**
+     * 处理的行数
+     */
+    private int total;
+
+    /**
+     * 各结果的行数
+     */
+    private Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+
+    /**
+     * 行数超过上限，其余行未处理
+     */
+    private boolean truncated;
+
+    private List<Row> rows = new ArrayList<>();
+}
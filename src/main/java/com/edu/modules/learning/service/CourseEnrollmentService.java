@@ -3,6 +3,8 @@ package com.edu.modules.learning.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.edu.modules.learning.entity.CourseEnrollment;
 
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +22,16 @@ public interface CourseEnrollmentService extends IService<CourseEnrollment> {
      */
     boolean unenrollCourse(Long userId, Long courseId);
 
+    /**
+     * 批量选课：已存在的正常选课不变，已取消的恢复，逐行返回结果
+     */
+    BulkEnrollmentResult bulkEnroll(Long courseId, Collection<Long> userIds);
+
+    /**
+     * 按CSV批量选课：每行第一列为用户ID，首行不是数字时视为表头；边读边分批写入
+     */
+    BulkEnrollmentResult bulkEnroll(Long courseId, Reader csv);
+
     /**
      * 检查用户是否已选课
      */
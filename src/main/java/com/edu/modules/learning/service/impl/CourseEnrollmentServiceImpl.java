@@ -3,17 +3,44 @@ package com.edu.modules.learning.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.modules.course.counter.CourseCounterAggregator;
+import com.edu.modules.course.ranking.CourseActivity;
+import com.edu.modules.course.ranking.HotCourseRanking;
+import com.edu.modules.course.service.CourseService;
 import com.edu.modules.learning.entity.CourseEnrollment;
 import com.edu.modules.learning.mapper.CourseEnrollmentMapper;
+import com.edu.modules.learning.service.BulkEnrollmentResult;
+import com.edu.modules.learning.service.BulkEnrollmentResult.Outcome;
 import com.edu.modules.learning.service.CourseEnrollmentService;
+import com.edu.modules.user.entity.User;
+import com.edu.modules.user.mapper.UserMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 选课服务实现
@@ -23,6 +50,29 @@ import java.util.List;
 public class CourseEnrollmentServiceImpl extends ServiceImpl<CourseEnrollmentMapper, CourseEnrollment>
         implements CourseEnrollmentService {
 
+    private static final Log BATCH_LOG = LogFactory.getLog(CourseEnrollmentServiceImpl.class);
+
+    @Value("${business.learning.enrollment.bulk.batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${business.learning.enrollment.bulk.max-rows:20000}")
+    private int bulkMaxRows;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private HotCourseRanking hotCourseRanking;
+
+    @Autowired
+    private CourseCounterAggregator courseCounterAggregator;
+
+    @Autowired
+    private EnrolledCourseCache enrolledCourseCache;
+
     @Override
     public CourseEnrollment enrollCourse(Long userId, Long courseId) {
         // 参数校验
@@ -47,6 +97,9 @@ public class CourseEnrollmentServiceImpl extends ServiceImpl<CourseEnrollmentMap
             throw new BusinessException("选课失败");
         }
 
+        enrolledCourseCache.add(userId, courseId);
+        courseCounterAggregator.addStudents(courseId, 1);
+        hotCourseRanking.record(courseId, CourseActivity.ENROLL);
         log.info("用户选课成功: userId={}, courseId={}", userId, courseId);
         return enrollment;
     }
@@ -60,27 +113,80 @@ public class CourseEnrollmentServiceImpl extends ServiceImpl<CourseEnrollmentMap
         LambdaUpdateWrapper<CourseEnrollment> wrapper = new LambdaUpdateWrapper<>();
         wrapper.eq(CourseEnrollment::getUserId, userId)
                 .eq(CourseEnrollment::getCourseId, courseId)
+                .eq(CourseEnrollment::getStatus, 1)
                 .set(CourseEnrollment::getStatus, 0); // 取消状态
 
         boolean success = update(wrapper);
         if (success) {
+            enrolledCourseCache.remove(userId, courseId);
+            courseCounterAggregator.addStudents(courseId, -1);
             log.info("用户退课成功: userId={}, courseId={}", userId, courseId);
         }
         return success;
     }
 
+    @Override
+    public BulkEnrollmentResult bulkEnroll(Long courseId, Collection<Long> userIds) {
+        BulkEnrollment bulk = new BulkEnrollment(courseId);
+        if (userIds != null) {
+            int line = 0;
+            for (Long userId : userIds) {
+                if (!bulk.accept(++line, userId, null)) {
+                    break;
+                }
+            }
+        }
+        return bulk.finish();
+    }
+
+    @Override
+    public BulkEnrollmentResult bulkEnroll(Long courseId, Reader csv) {
+        BulkEnrollment bulk = new BulkEnrollment(courseId);
+        BufferedReader reader = csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv);
+        try {
+            String text;
+            int line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                    text = text.substring(1);
+                }
+                int comma = text.indexOf(',');
+                String value = (comma >= 0 ? text.substring(0, comma) : text).trim();
+                if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                    value = value.substring(1, value.length() - 1).trim();
+                }
+                if (value.isEmpty()) {
+                    continue;
+                }
+                Long userId;
+                try {
+                    userId = Long.valueOf(value);
+                } catch (NumberFormatException e) {
+                    if (line == 1) {
+                        continue; // 表头
+                    }
+                    userId = null;
+                }
+                if (!bulk.accept(line, userId, value)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取批量选课CSV失败: courseId={}", courseId, e);
+            throw new BusinessException("读取CSV失败");
+        }
+        return bulk.finish();
+    }
+
     @Override
     public boolean isEnrolled(Long userId, Long courseId) {
         if (userId == null || courseId == null) {
             return false;
         }
 
-        LambdaQueryWrapper<CourseEnrollment> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(CourseEnrollment::getUserId, userId)
-                .eq(CourseEnrollment::getCourseId, courseId)
-                .eq(CourseEnrollment::getStatus, 1); // 正常状态
-
-        return count(wrapper) > 0;
+        return enrolledCourseCache.contains(userId, courseId,
+                () -> baseMapper.selectActiveCourseIds(userId));
     }
 
     @Override
@@ -123,4 +229,198 @@ public class CourseEnrollmentServiceImpl extends ServiceImpl<CourseEnrollmentMap
 
         return (int) count(wrapper);
     }
-}
\ No newline at end of file
+
+    /**
+     * 一次批量选课：逐行校验去重，凑满一批后写入
+     * 每批先查出用户与已有选课，再以 JDBC 批量执行 INSERT IGNORE（新增）与条件 UPDATE（恢复取消），
+     * 以各语句影响行数确定每行结果，并发写入导致的冲突按已选修处理；课程学员数每批更新一次。
+     * 批量选课不计入课程热度，避免机构导入冲高热门排行
+     */
+    private class BulkEnrollment {
+
+        private final Long courseId;
+        private final BulkEnrollmentResult result = new BulkEnrollmentResult();
+        private final Set<Long> seen = new HashSet<>();
+        private final List<BulkEnrollmentResult.Row> pending = new ArrayList<>();
+
+        BulkEnrollment(Long courseId) {
+            if (courseId == null) {
+                throw new BusinessException(ResultCode.VALIDATION_ERROR, "课程ID不能为空");
+            }
+            if (courseService.getById(courseId) == null) {
+                throw new BusinessException(ResultCode.NOT_FOUND, "课程不存在");
+            }
+            this.courseId = courseId;
+            result.setCourseId(courseId);
+        }
+
+        /**
+         * 接收一行；达到行数上限时返回 false
+         */
+        boolean accept(int line, Long userId, String raw) {
+            if (result.getRows().size() >= bulkMaxRows) {
+                result.setTruncated(true);
+                return false;
+            }
+            BulkEnrollmentResult.Row row = new BulkEnrollmentResult.Row();
+            row.setLine(line);
+            row.setUserId(userId);
+            result.getRows().add(row);
+            if (userId == null || userId <= 0) {
+                row.setOutcome(Outcome.INVALID);
+                row.setMessage(raw != null ? "无效的用户ID: " + abbreviate(raw) : "用户ID不能为空");
+            } else if (!seen.add(userId)) {
+                row.setOutcome(Outcome.DUPLICATE);
+            } else {
+                pending.add(row);
+                if (pending.size() >= bulkBatchSize) {
+                    flush();
+                }
+            }
+            return true;
+        }
+
+        BulkEnrollmentResult finish() {
+            flush();
+            Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+            for (BulkEnrollmentResult.Row row : result.getRows()) {
+                counts.merge(row.getOutcome(), 1, Integer::sum);
+            }
+            result.setCounts(counts);
+            result.setTotal(result.getRows().size());
+            log.info("批量选课完成: courseId={}, total={}, counts={}, truncated={}",
+                    courseId, result.getTotal(), counts, result.isTruncated());
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<BulkEnrollmentResult.Row> batch = new ArrayList<>(pending);
+            pending.clear();
+            try {
+                write(batch);
+            } catch (Exception e) {
+                log.error("批量选课写入失败: courseId={}, rows={}", courseId, batch.size(), e);
+            }
+            for (BulkEnrollmentResult.Row row : batch) {
+                if (row.getOutcome() == null) {
+                    row.setOutcome(Outcome.FAILED);
+                    row.setMessage("写入失败");
+                }
+            }
+        }
+
+        private void write(List<BulkEnrollmentResult.Row> batch) {
+            Map<Long, BulkEnrollmentResult.Row> byUser = new LinkedHashMap<>();
+            for (BulkEnrollmentResult.Row row : batch) {
+                byUser.put(row.getUserId(), row);
+            }
+
+            Set<Long> existingUsers = new HashSet<>();
+            for (Object id : userMapper.selectObjs(new LambdaQueryWrapper<User>()
+                    .select(User::getId).in(User::getId, byUser.keySet()))) {
+                existingUsers.add(((Number) id).longValue());
+            }
+            Map<Long, Integer> statuses = new HashMap<>();
+            for (CourseEnrollment enrollment : baseMapper.selectByCourseAndUsers(courseId, byUser.keySet())) {
+                statuses.put(enrollment.getUserId(), enrollment.getStatus());
+            }
+
+            List<BulkEnrollmentResult.Row> toInsert = new ArrayList<>();
+            List<BulkEnrollmentResult.Row> toReactivate = new ArrayList<>();
+            for (BulkEnrollmentResult.Row row : byUser.values()) {
+                Integer status = statuses.get(row.getUserId());
+                if (Integer.valueOf(1).equals(status)) {
+                    row.setOutcome(Outcome.ALREADY_ENROLLED);
+                } else if (status != null) {
+                    toReactivate.add(row);
+                } else if (!existingUsers.contains(row.getUserId())) {
+                    row.setOutcome(Outcome.USER_NOT_FOUND);
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            if (toInsert.isEmpty() && toReactivate.isEmpty()) {
+                return;
+            }
+
+            List<BatchResult> results = new ArrayList<>();
+            SqlHelper.executeBatch(CourseEnrollment.class, BATCH_LOG, sqlSession -> {
+                CourseEnrollmentMapper mapper = sqlSession.getMapper(CourseEnrollmentMapper.class);
+                for (BulkEnrollmentResult.Row row : toInsert) {
+                    mapper.insertIgnore(row.getUserId(), courseId);
+                }
+                for (BulkEnrollmentResult.Row row : toReactivate) {
+                    mapper.reactivate(row.getUserId(), courseId);
+                }
+                results.addAll(sqlSession.flushStatements());
+            });
+
+            // 影响行数为正的行确定已写入；为0（INSERT IGNORE 冲突、外键失败被降级为警告）
+            // 或 SUCCESS_NO_INFO（开启 rewriteBatchedStatements 时）的行无法据此区分，写入后重新查询状态归类
+            List<BulkEnrollmentResult.Row> applied = new ArrayList<>();
+            List<BulkEnrollmentResult.Row> unresolved = new ArrayList<>();
+            Map<BulkEnrollmentResult.Row, Outcome> noInfo = new IdentityHashMap<>();
+            for (BatchResult batchResult : results) {
+                boolean insert = batchResult.getMappedStatement().getId().endsWith(".insertIgnore");
+                List<BulkEnrollmentResult.Row> rows = insert ? toInsert : toReactivate;
+                int[] updateCounts = batchResult.getUpdateCounts();
+                for (int i = 0; i < rows.size(); i++) {
+                    BulkEnrollmentResult.Row row = rows.get(i);
+                    Outcome outcome = insert ? Outcome.ENROLLED : Outcome.REACTIVATED;
+                    int count = i < updateCounts.length ? updateCounts[i] : Statement.SUCCESS_NO_INFO;
+                    if (count > 0) {
+                        row.setOutcome(outcome);
+                        applied.add(row);
+                    } else {
+                        unresolved.add(row);
+                        if (count == Statement.SUCCESS_NO_INFO) {
+                            noInfo.put(row, outcome);
+                        }
+                    }
+                }
+            }
+            try {
+                if (!unresolved.isEmpty()) {
+                    Set<Long> userIds = new HashSet<>();
+                    for (BulkEnrollmentResult.Row row : unresolved) {
+                        userIds.add(row.getUserId());
+                    }
+                    Set<Long> active = new HashSet<>();
+                    for (CourseEnrollment enrollment : baseMapper.selectByCourseAndUsers(courseId, userIds)) {
+                        if (Integer.valueOf(1).equals(enrollment.getStatus())) {
+                            active.add(enrollment.getUserId());
+                        }
+                    }
+                    for (BulkEnrollmentResult.Row row : unresolved) {
+                        if (!active.contains(row.getUserId())) {
+                            row.setOutcome(Outcome.FAILED);
+                            row.setMessage("写入被忽略（用户或课程可能已删除）");
+                        } else if (noInfo.containsKey(row)) {
+                            // 写入前不是有效选课、写入后是，按本次写入处理
+                            row.setOutcome(noInfo.get(row));
+                            applied.add(row);
+                        } else {
+                            // 影响行数为0而已是有效选课：期间被并发选课
+                            row.setOutcome(Outcome.ALREADY_ENROLLED);
+                        }
+                    }
+                }
+            } finally {
+                // 重新查询失败时，已确定写入的行仍须计入
+                for (BulkEnrollmentResult.Row row : applied) {
+                    enrolledCourseCache.add(row.getUserId(), courseId);
+                }
+                if (!applied.isEmpty()) {
+                    courseCounterAggregator.addStudents(courseId, applied.size());
+                }
+            }
+        }
+
+        private String abbreviate(String raw) {
+            return raw.length() > 32 ? raw.substring(0, 32) + "..." : raw;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.edu.modules.learning.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 用户已选课程缓存
+ * 每个用户的有效选课以升序课程ID数组保存，判断是否选课为二分查找；
+ * 一级为本机有界LRU缓存，二级为可选的Redis缓存（逗号分隔的课程ID）。
+ * 本机选课/退课时就地更新数组，并递增Redis中的版本号、删除Redis缓存；加载时先读版本号，
+ * 仅当写回时版本号未变才写入Redis，与其他节点的变更交错时不会把旧数组写入Redis。
+ * 其他节点的本机缓存可能滞后：未选修的结论只在加载后 negative-ttl 内可信，超过后重新加载确认，
+ * 新选课最多滞后 negative-ttl；已选修的结论在 ttl 内可信，其他节点的退课最多滞后 ttl
+ */
+@Slf4j
+@Component
+public class EnrolledCourseCache {
+
+    private static final String REDIS_KEY_PREFIX = "learning:enrolled:";
+    private static final String REDIS_VERSION_PREFIX = "learning:enrolled:version:";
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * 版本号未变（都不存在视为相同）时才写入缓存
+     */
+    private static final DefaultRedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 递增版本号并删除缓存，使加载中的旧数组无法写入
+     */
+    private static final DefaultRedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) "
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return 1",
+            Long.class);
+
+    @Value("${business.learning.enrollment.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${business.learning.enrollment.cache.ttl:60000}")
+    private long ttl;
+
+    @Value("${business.learning.enrollment.cache.negative-ttl:5000}")
+    private long negativeTtl;
+
+    @Value("${business.learning.enrollment.cache.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${business.learning.enrollment.cache.redis-ttl:600000}")
+    private long redisTtl;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private Map<Long, Entry> entries;
+
+    /**
+     * 变更计数，加载期间发生变更时不回填，避免写入旧数据
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.entries = new LinkedHashMap<Long, Entry>(Math.min(Math.max(maxSize, 16), 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 用户是否选修了课程
+     *
+     * @param loader 未命中时加载用户全部有效选课的课程ID
+     */
+    public boolean contains(Long userId, Long courseId, Supplier<Collection<Long>> loader) {
+        Entry entry = lookup(userId, loader, false);
+        if (Arrays.binarySearch(entry.courseIds, courseId) >= 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt <= negativeTtl) {
+            return false;
+        }
+        // 未选修的结论已超过 negative-ttl，可能是其他节点刚完成选课，重新加载确认
+        return Arrays.binarySearch(lookup(userId, loader, true).courseIds, courseId) >= 0;
+    }
+
+    /**
+     * 获取用户有效选课的课程ID（升序，调用方不得修改）
+     */
+    public long[] getCourseIds(Long userId, Supplier<Collection<Long>> loader) {
+        return lookup(userId, loader, false).courseIds;
+    }
+
+    /**
+     * @param reload 忽略本机缓存，从Redis或数据库重新加载
+     */
+    private Entry lookup(Long userId, Supplier<Collection<Long>> loader, boolean reload) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                if (!reload && entry.expireAt > now) {
+                    return entry;
+                }
+                entries.remove(userId);
+            }
+        }
+
+        long epoch = modifications.get();
+        String[] cached = redisGet(userId);
+        long[] courseIds = cached != null ? decode(cached[0]) : null;
+        if (courseIds == null) {
+            courseIds = toSortedArray(loader.get());
+            if (cached != null && modifications.get() == epoch) {
+                redisPut(userId, courseIds, cached[1]);
+            }
+        }
+        Entry loaded = new Entry(courseIds, now, now + ttl);
+        if (maxSize > 0) {
+            synchronized (this) {
+                if (modifications.get() == epoch) {
+                    entries.put(userId, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 选课成功后加入课程
+     */
+    public void add(Long userId, Long courseId) {
+        modify(userId, courseId, true);
+    }
+
+    /**
+     * 退课成功后移除课程
+     */
+    public void remove(Long userId, Long courseId) {
+        modify(userId, courseId, false);
+    }
+
+    /**
+     * 失效指定用户的缓存
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        modifications.incrementAndGet();
+        synchronized (this) {
+            entries.remove(userId);
+        }
+        redisInvalidate(userId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void modify(Long userId, Long courseId, boolean enrolled) {
+        if (userId == null || courseId == null) {
+            return;
+        }
+        modifications.incrementAndGet();
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                long[] updated = enrolled ? insert(entry.courseIds, courseId) : delete(entry.courseIds, courseId);
+                if (updated != entry.courseIds) {
+                    entries.put(userId, new Entry(updated, entry.loadedAt, entry.expireAt));
+                }
+            }
+        }
+        redisInvalidate(userId);
+    }
+
+    /**
+     * 有序插入，返回新数组；已存在时返回原数组
+     */
+    static long[] insert(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int at = -index - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+        return result;
+    }
+
+    /**
+     * 有序删除，返回新数组；不存在时返回原数组
+     */
+    static long[] delete(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        long[] result = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    private static long[] toSortedArray(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] result = new long[courseIds.size()];
+        int n = 0;
+        for (Long courseId : courseIds) {
+            if (courseId != null) {
+                result[n++] = courseId;
+            }
+        }
+        Arrays.sort(result, 0, n);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 一次读取缓存值与版本号
+     *
+     * @return [缓存值（不存在时为null）, 版本号（不存在时为空串）]；Redis不可用时返回null
+     */
+    private String[] redisGet(Long userId) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            List<String> values = redis.opsForValue().multiGet(
+                    Arrays.asList(REDIS_KEY_PREFIX + userId, REDIS_VERSION_PREFIX + userId));
+            if (values == null || values.size() < 2) {
+                return null;
+            }
+            return new String[]{values.get(0), values.get(1) != null ? values.get(1) : ""};
+        } catch (Exception e) {
+            log.warn("读取选课缓存失败: userId={}, {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long[] decode(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isEmpty()) {
+            return EMPTY;
+        }
+        String[] parts = value.split(",");
+        long[] result = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Long.parseLong(parts[i]);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @param version 加载前读到的版本号，期间有节点变更过选课时不写入
+     */
+    private void redisPut(Long userId, long[] courseIds, String version) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder(courseIds.length * 8);
+        for (int i = 0; i < courseIds.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(courseIds[i]);
+        }
+        try {
+            redis.execute(PUT_SCRIPT, Arrays.asList(REDIS_KEY_PREFIX + userId, REDIS_VERSION_PREFIX + userId),
+                    version, sb.toString(), String.valueOf(redisTtl));
+        } catch (Exception e) {
+            log.warn("写入选课缓存失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private void redisInvalidate(Long userId) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        try {
+            // 版本号比缓存值多保留一个周期，覆盖加载期间
+            redis.execute(INVALIDATE_SCRIPT, Arrays.asList(REDIS_KEY_PREFIX + userId, REDIS_VERSION_PREFIX + userId),
+                    String.valueOf(redisTtl * 2));
+        } catch (Exception e) {
+            log.warn("删除选课缓存失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private static final class Entry {
+        private final long[] courseIds;
+        private final long loadedAt;
+        private final long expireAt;
+
+        private Entry(long[] courseIds, long loadedAt, long expireAt) {
+            this.courseIds = courseIds;
+            this.loadedAt = loadedAt;
+            this.expireAt = expireAt;
+        }
+    }
+}
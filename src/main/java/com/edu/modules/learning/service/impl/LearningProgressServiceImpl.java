@@ -1,19 +1,34 @@
 package com.edu.modules.learning.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.modules.course.entity.CourseLesson;
+import com.edu.modules.course.ranking.CourseActivity;
+import com.edu.modules.course.ranking.HotCourseRanking;
+import com.edu.modules.course.service.CourseLessonService;
 import com.edu.modules.learning.entity.LearningProgress;
+import com.edu.modules.learning.entity.LearningSummary;
 import com.edu.modules.learning.mapper.LearningProgressMapper;
+import com.edu.modules.learning.progress.LearningSummaryAggregator;
+import com.edu.modules.learning.progress.ProgressChange;
+import com.edu.modules.learning.progress.ProgressWriteBehind;
 import com.edu.modules.learning.service.LearningProgressService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 学习进度服务实现
@@ -23,6 +38,21 @@ import java.util.List;
 public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMapper, LearningProgress>
         implements LearningProgressService {
 
+    @Autowired
+    private CourseLessonService courseLessonService;
+
+    @Autowired
+    private HotCourseRanking hotCourseRanking;
+
+    @Autowired
+    private ProgressWriteBehind progressWriteBehind;
+
+    @Autowired
+    private LearningSummaryAggregator learningSummaryAggregator;
+
+    @Value("${business.learning.progress.write-behind:true}")
+    private boolean writeBehind;
+
     @Override
     public LearningProgress updateProgress(Long userId, Long lessonId, Integer progress, Integer lastPosition) {
         // 参数校验
@@ -34,44 +64,26 @@ public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMap
             throw new BusinessException(ResultCode.VALIDATION_ERROR, "进度值必须在0-100之间");
         }
 
-        // 获取或创建学习进度记录
-        LearningProgress progressRecord = getUserLessonProgress(userId, lessonId);
-        if (progressRecord == null) {
-            progressRecord = new LearningProgress();
-            progressRecord.setUserId(userId);
-            progressRecord.setLessonId(lessonId);
-            progressRecord.setProgress(progress != null ? progress : 0);
-            progressRecord.setLastPosition(lastPosition != null ? lastPosition : 0);
-            progressRecord.setDuration(0);
-            progressRecord.setCompleted(0);
-            progressRecord.setLastAccessTime(LocalDateTime.now());
-
-            boolean success = save(progressRecord);
-            if (!success) {
-                throw new BusinessException("创建学习进度记录失败");
-            }
-        } else {
-            // 更新现有记录
-            LambdaUpdateWrapper<LearningProgress> wrapper = new LambdaUpdateWrapper<>();
-            wrapper.eq(LearningProgress::getId, progressRecord.getId());
-
-            if (progress != null) {
-                wrapper.set(LearningProgress::getProgress, progress);
-                // 如果进度达到100%，标记为完成
-                if (progress >= 100) {
-                    wrapper.set(LearningProgress::getCompleted, 1);
-                }
-            }
-            if (lastPosition != null) {
-                wrapper.set(LearningProgress::getLastPosition, lastPosition);
-            }
-            wrapper.set(LearningProgress::getLastAccessTime, LocalDateTime.now());
+        hotCourseRanking.record(courseLessonService.getCourseIdByLessonId(lessonId), CourseActivity.PROGRESS);
 
-            update(wrapper);
+        if (writeBehind) {
+            // 心跳只写入缓冲，由 ProgressWriteBehind 定期批量落库；返回值按库中记录快照合并，不逐次查询
+            LearningProgress merged = progressWriteBehind.record(userId, lessonId, progress, lastPosition);
+            log.debug("学习进度已缓冲: userId={}, lessonId={}, progress={}", userId, lessonId, progress);
+            return merged;
         }
 
-        log.info("学习进度更新成功: userId={}, lessonId={}, progress={}", userId, lessonId, progress);
-        return getUserLessonProgress(userId, lessonId);
+        // 同步落库：读取库中观看区间合并后以单条 upsert 写入；
+        // 并发的首次写入不会在 uk_user_lesson 上冲突，迟到的心跳也不会使进度回退
+        LearningProgress stored = progressWriteBehind.loadStored(userId, lessonId);
+        ProgressChange change = ProgressChange.before(stored);
+        LearningProgress record = progressWriteBehind.resolve(stored,
+                progressWriteBehind.heartbeat(userId, lessonId, progress, lastPosition),
+                courseLessonService.getLessonDurations(Collections.singletonList(lessonId)).get(lessonId));
+        baseMapper.upsertProgressReturningId(record);
+        progressWriteBehind.applied(Collections.singletonList(change.after(record)));
+        log.debug("学习进度更新成功: userId={}, lessonId={}, progress={}", userId, lessonId, record.getProgress());
+        return record;
     }
 
     @Override
@@ -80,18 +92,32 @@ public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMap
             return false;
         }
 
-        LambdaUpdateWrapper<LearningProgress> wrapper = new LambdaUpdateWrapper<>();
-        wrapper.eq(LearningProgress::getUserId, userId)
-                .eq(LearningProgress::getLessonId, lessonId)
-                .set(LearningProgress::getProgress, 100)
-                .set(LearningProgress::getCompleted, 1)
-                .set(LearningProgress::getLastAccessTime, LocalDateTime.now());
-
-        boolean success = update(wrapper);
-        if (success) {
-            log.info("课时完成标记成功: userId={}, lessonId={}", userId, lessonId);
+        // 完成状态的变化以库中记录为准，缓冲中尚未落库的完成会在写回时计入
+        LearningProgress stored = progressWriteBehind.loadStored(userId, lessonId);
+        ProgressChange change = ProgressChange.before(stored);
+
+        // 有时长的课时须实际观看达到覆盖率要求
+        Integer lessonDuration = courseLessonService.getLessonDurations(Collections.singletonList(lessonId)).get(lessonId);
+        if (lessonDuration != null && lessonDuration > 0 && !change.isCompletedBefore()) {
+            LearningProgress current = progressWriteBehind.overlay(userId, lessonId, stored);
+            if (current == null || !Integer.valueOf(1).equals(current.getCompleted())) {
+                log.info("课时观看覆盖率不足，不能标记完成: userId={}, lessonId={}", userId, lessonId);
+                return false;
+            }
         }
-        return success;
+
+        // 尚无记录（例如心跳仍在缓冲中）时直接插入，播放位置与观看区间保持不变
+        LearningProgress record = new LearningProgress();
+        record.setUserId(userId);
+        record.setLessonId(lessonId);
+        record.setProgress(100);
+        record.setCompleted(1);
+        record.setLastAccessTime(LocalDateTime.now());
+        baseMapper.upsertProgressReturningId(record);
+        progressWriteBehind.forget(userId, lessonId);
+        progressWriteBehind.applied(Collections.singletonList(change.after(record)));
+        log.info("课时完成标记成功: userId={}, lessonId={}", userId, lessonId);
+        return true;
     }
 
     @Override
@@ -104,7 +130,7 @@ public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMap
         wrapper.eq(LearningProgress::getUserId, userId)
                 .eq(LearningProgress::getLessonId, lessonId);
 
-        return getOne(wrapper);
+        return progressWriteBehind.overlay(userId, lessonId, getOne(wrapper));
     }
 
     @Override
@@ -113,13 +139,32 @@ public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMap
             return Collections.emptyList();
         }
 
-        // 这里需要通过关联查询获取课程下的所有课时进度
-        // 暂时返回用户的全部学习进度，后续优化
-        LambdaQueryWrapper<LearningProgress> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(LearningProgress::getUserId, userId)
-                .orderByDesc(LearningProgress::getLastAccessTime);
-
-        return list(wrapper);
+        // 经课时、章节关联只取该课程下的进度，再叠加缓冲中尚未落库的值
+        List<LearningProgress> stored = baseMapper.selectByUserAndCourse(userId, courseId);
+        Map<Long, LearningProgress> storedByLesson = new LinkedHashMap<>();
+        for (LearningProgress progress : stored) {
+            storedByLesson.put(progress.getLessonId(), progress);
+        }
+        // 首次学习的课时可能只在缓冲中，该课程全部课时的缓冲值一次取出
+        Set<Long> lessonIds = new LinkedHashSet<>(storedByLesson.keySet());
+        if (writeBehind) {
+            for (CourseLesson lesson : courseLessonService.getLessonsByCourseId(courseId)) {
+                lessonIds.add(lesson.getId());
+            }
+        }
+        Map<Long, LearningProgress> merged = progressWriteBehind.overlay(userId, lessonIds, storedByLesson);
+        List<LearningProgress> progresses = new ArrayList<>(merged.size());
+        for (Long lessonId : lessonIds) {
+            LearningProgress progress = merged.get(lessonId);
+            if (progress != null) {
+                progresses.add(progress);
+            }
+        }
+        if (progresses.size() > stored.size()) {
+            progresses.sort(Comparator.comparing(LearningProgress::getLastAccessTime,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+        }
+        return progresses;
     }
 
     @Override
@@ -128,18 +173,14 @@ public class LearningProgressServiceImpl extends ServiceImpl<LearningProgressMap
             return new LearningProgressStats(0, 0, 0);
         }
 
-        LambdaQueryWrapper<LearningProgress> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(LearningProgress::getUserId, userId);
-
-        List<LearningProgress> progresses = list(wrapper);
-
-        int totalLessons = progresses.size();
-        int completedLessons = (int) progresses.stream()
-                .filter(p -> p.getCompleted() != null && p.getCompleted() == 1)
-                .count();
-        int totalWatchTime = progresses.stream()
-                .mapToInt(p -> p.getDuration() != null ? p.getDuration() : 0)
-                .sum();
+        // 统计行由进度写入路径增量维护，一次主键读取
+        LearningSummary summary = learningSummaryAggregator.get(userId);
+        if (summary == null) {
+            return new LearningProgressStats(0, 0, 0);
+        }
+        int totalLessons = summary.getLessonsTouched() != null ? summary.getLessonsTouched() : 0;
+        int completedLessons = summary.getLessonsCompleted() != null ? summary.getLessonsCompleted() : 0;
+        int totalWatchTime = summary.getWatchSeconds() != null ? (int) Math.min(summary.getWatchSeconds(), Integer.MAX_VALUE) : 0;
 
         return new LearningProgressStats(totalLessons, completedLessons, totalWatchTime);
     }
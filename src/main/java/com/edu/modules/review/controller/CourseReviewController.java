@@ -1,5 +1,6 @@
 package com.edu.modules.review.controller;
 
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
 import com.edu.modules.review.entity.CourseReview;
 import com.edu.modules.review.service.CourseReviewService;
@@ -18,7 +19,6 @@ import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
-import java.util.List;
 
 /**
  * 课程评价控制器
@@ -89,14 +89,19 @@ public class CourseReviewController {
 
     @ApiOperation("获取课程评价列表")
     @GetMapping("/course/{courseId}")
-    public Result<List<CourseReview>> getCourseReviews(@ApiParam("课程ID") @PathVariable Long courseId) {
-        List<CourseReview> reviews = courseReviewService.getReviewsByCourseId(courseId);
+    public Result<CursorPage<CourseReview>> getCourseReviews(
+            @ApiParam("课程ID") @PathVariable Long courseId,
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
+        CursorPage<CourseReview> reviews = courseReviewService.pageReviewsByCourseId(courseId, cursor, size);
         return Result.success(reviews);
     }
 
     @ApiOperation("获取我的评价列表")
     @GetMapping("/my-reviews")
-    public Result<List<CourseReview>> getMyReviews() {
+    public Result<CursorPage<CourseReview>> getMyReviews(
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
         Long userId = (Long) org.springframework.web.context.request.RequestContextHolder
                 .currentRequestAttributes().getAttribute("userId",
                 org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
@@ -105,7 +110,7 @@ public class CourseReviewController {
             return Result.fail("用户未登录");
         }
 
-        List<CourseReview> reviews = courseReviewService.getReviewsByUserId(userId);
+        CursorPage<CourseReview> reviews = courseReviewService.pageReviewsByUserId(userId, cursor, size);
         return Result.success(reviews);
     }
 
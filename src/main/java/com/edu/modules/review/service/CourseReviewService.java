@@ -1,6 +1,7 @@
 package com.edu.modules.review.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.review.entity.CourseReview;
 
 import java.math.BigDecimal;
@@ -55,4 +56,14 @@ public interface CourseReviewService extends IService<CourseReview> {
      * 获取用户的评价统计
      */
     UserReviewStats getUserReviewStats(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页查询课程评价（按创建时间倒序）
+     */
+    CursorPage<CourseReview> pageReviewsByCourseId(Long courseId, String cursor, Integer size);
+
+    /**
+     * 游标分页查询用户评价（按创建时间倒序）
+     */
+    CursorPage<CourseReview> pageReviewsByUserId(Long userId, String cursor, Integer size);
+}
@@ -4,12 +4,19 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.result.CursorPage;
+import com.edu.common.utils.KeysetPager;
+import com.edu.modules.course.counter.CourseCounterAggregator;
+import com.edu.modules.course.ranking.CourseActivity;
+import com.edu.modules.course.ranking.HotCourseRanking;
 import com.edu.modules.review.entity.CourseReview;
 import com.edu.modules.review.mapper.CourseReviewMapper;
 import com.edu.modules.review.service.CourseReviewService;
 import com.edu.modules.review.service.CourseReviewStats;
 import com.edu.modules.review.service.UserReviewStats;
+import com.edu.security.AuthContextHolder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -26,6 +33,33 @@ import java.util.List;
 public class CourseReviewServiceImpl extends ServiceImpl<CourseReviewMapper, CourseReview>
         implements CourseReviewService {
 
+    @Autowired
+    private AuthContextHolder authContextHolder;
+
+    @Autowired
+    private HotCourseRanking hotCourseRanking;
+
+    @Autowired
+    private CourseCounterAggregator courseCounterAggregator;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Override
+    public CursorPage<CourseReview> pageReviewsByCourseId(Long courseId, String cursor, Integer size) {
+        LambdaQueryWrapper<CourseReview> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(CourseReview::getCourseId, courseId)
+                .eq(CourseReview::getStatus, 1); // 只查询显示状态的评价
+        return keysetPager.page(this, wrapper, cursor, size, CourseReview::getCreateTime, CourseReview::getId);
+    }
+
+    @Override
+    public CursorPage<CourseReview> pageReviewsByUserId(Long userId, String cursor, Integer size) {
+        LambdaQueryWrapper<CourseReview> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(CourseReview::getUserId, userId);
+        return keysetPager.page(this, wrapper, cursor, size, CourseReview::getCreateTime, CourseReview::getId);
+    }
+
     @Override
     public CourseReview createReview(CourseReview review) {
         // 参数校验
@@ -59,6 +93,10 @@ public class CourseReviewServiceImpl extends ServiceImpl<CourseReviewMapper, Cou
             throw new BusinessException("发表评价失败");
         }
 
+        if (Integer.valueOf(1).equals(review.getStatus())) {
+            courseCounterAggregator.addReviews(review.getCourseId(), 1, review.getRating());
+        }
+        hotCourseRanking.record(review.getCourseId(), CourseActivity.REVIEW);
         log.info("课程评价发表成功: userId={}, courseId={}, rating={}",
                 review.getUserId(), review.getCourseId(), review.getRating());
         return review;
@@ -76,13 +114,19 @@ public class CourseReviewServiceImpl extends ServiceImpl<CourseReviewMapper, Cou
             return false;
         }
 
-        Long currentUserId = getCurrentUserId();
+        Long currentUserId = authContextHolder.getUserId();
         if (!existing.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权限修改此评价");
         }
 
         boolean success = updateById(review);
         if (success) {
+            CourseReview updated = new CourseReview();
+            updated.setStatus(review.getStatus() != null ? review.getStatus() : existing.getStatus());
+            updated.setRating(review.getRating() != null ? review.getRating() : existing.getRating());
+            int reviews = countedReviews(updated) - countedReviews(existing);
+            BigDecimal ratingDelta = countedRating(updated).subtract(countedRating(existing));
+            courseCounterAggregator.addReviews(existing.getCourseId(), reviews, ratingDelta);
             log.info("课程评价更新成功: id={}", review.getId());
         }
         return success;
@@ -100,13 +144,15 @@ public class CourseReviewServiceImpl extends ServiceImpl<CourseReviewMapper, Cou
             return false;
         }
 
-        Long currentUserId = getCurrentUserId();
+        Long currentUserId = authContextHolder.getUserId();
         if (!existing.getUserId().equals(currentUserId)) {
             throw new BusinessException(ResultCode.FORBIDDEN, "无权限删除此评价");
         }
 
         boolean success = removeById(reviewId);
         if (success) {
+            courseCounterAggregator.addReviews(existing.getCourseId(), -countedReviews(existing),
+                    countedRating(existing).negate());
             log.info("课程评价删除成功: id={}", reviewId);
         }
         return success;
@@ -237,15 +283,13 @@ public class CourseReviewServiceImpl extends ServiceImpl<CourseReviewMapper, Cou
     }
 
     /**
-     * 获取当前用户ID（从请求上下文中获取）
+     * 评价是否计入课程统计（仅显示状态）
      */
-    private Long getCurrentUserId() {
-        try {
-            return (Long) org.springframework.web.context.request.RequestContextHolder
-                    .currentRequestAttributes().getAttribute("userId",
-                            org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST);
-        } catch (Exception e) {
-            return null;
-        }
+    private static int countedReviews(CourseReview review) {
+        return Integer.valueOf(1).equals(review.getStatus()) ? 1 : 0;
+    }
+
+    private static BigDecimal countedRating(CourseReview review) {
+        return countedReviews(review) == 1 && review.getRating() != null ? review.getRating() : BigDecimal.ZERO;
     }
-}
\ No newline at end of file
+}
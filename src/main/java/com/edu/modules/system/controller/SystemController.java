@@ -1,5 +1,6 @@
 package com.edu.modules.system.controller;
 
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
 import com.edu.modules.system.entity.OperationLog;
 import com.edu.modules.system.entity.Permission;
@@ -7,6 +8,7 @@ import com.edu.modules.system.entity.Role;
 import com.edu.modules.system.service.OperationLogService;
 import com.edu.modules.system.service.RolePermissionService;
 import com.edu.modules.system.service.StatisticsService;
+import com.edu.modules.user.service.UserService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 系统管理控制器
@@ -38,6 +41,9 @@ public class SystemController {
     @Autowired
     private RolePermissionService rolePermissionService;
 
+    @Autowired
+    private UserService userService;
+
     // ========== 系统统计 ==========
 
     @ApiOperation("获取系统概览统计")
@@ -54,6 +60,12 @@ public class SystemController {
         return Result.success(stats);
     }
 
+    @ApiOperation("获取用户缓存统计")
+    @GetMapping("/cache-stats")
+    public Result<Map<String, Long>> getCacheStats() {
+        return Result.success(userService.getCacheStats());
+    }
+
     @ApiOperation("获取课程统计")
     @GetMapping("/course-stats")
     public Result<StatisticsService.CourseStats> getCourseStats() {
@@ -79,20 +91,13 @@ public class SystemController {
 
     @ApiOperation("获取操作日志列表")
     @GetMapping("/logs")
-    public Result<List<OperationLog>> getLogs(
+    public Result<CursorPage<OperationLog>> getLogs(
             @ApiParam("用户ID") @RequestParam(required = false) Long userId,
             @ApiParam("操作类型") @RequestParam(required = false) String operation,
-            @ApiParam("页码") @RequestParam(defaultValue = "1") Integer page,
-            @ApiParam("每页数量") @RequestParam(defaultValue = "20") Integer size) {
-
-        List<OperationLog> logs;
-        if (userId != null) {
-            logs = operationLogService.getLogsByUser(userId);
-        } else if (operation != null && !operation.isEmpty()) {
-            logs = operationLogService.getLogsByOperation(operation);
-        } else {
-            logs = operationLogService.list();
-        }
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
+
+        CursorPage<OperationLog> logs = operationLogService.pageLogs(userId, operation, cursor, size);
         return Result.success(logs);
     }
 
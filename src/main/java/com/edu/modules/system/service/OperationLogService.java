@@ -1,6 +1,7 @@
 package com.edu.modules.system.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.system.entity.OperationLog;
 
 import java.time.LocalDateTime;
@@ -35,4 +36,9 @@ public interface OperationLogService extends IService<OperationLog> {
      * 清理过期日志
      */
     int cleanExpiredLogs(int days);
-}
\ No newline at end of file
+
+    /**
+     * 游标分页查询操作日志（按创建时间倒序）
+     */
+    CursorPage<OperationLog> pageLogs(Long userId, String operation, String cursor, Integer size);
+}
@@ -121,4 +121,14 @@ public interface RolePermissionService extends IService<Role> {
      * 检查用户是否有角色
      */
     boolean hasRole(Long userId, String roleCode);
+
+    /**
+     * 按权限资源规则检查请求是否允许访问；未登录的调用方按匿名角色（ROLE_ANONYMOUS）判断
+     *
+     * @param userId   用户ID，未登录时为null
+     * @param userRole 用户表中的角色（对应 ROLE_ 开头的角色编码），仅在用户未单独分配角色时使用，可为null
+     * @param method   请求方法
+     * @param path     请求路径
+     */
+    boolean checkRequest(Long userId, Integer userRole, String method, String path);
 }
\ No newline at end of file
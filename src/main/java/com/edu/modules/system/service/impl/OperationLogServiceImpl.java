@@ -2,10 +2,13 @@ package com.edu.modules.system.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.edu.common.result.CursorPage;
+import com.edu.common.utils.KeysetPager;
 import com.edu.modules.system.entity.OperationLog;
 import com.edu.modules.system.mapper.OperationLogMapper;
 import com.edu.modules.system.service.OperationLogService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +23,9 @@ import java.util.List;
 public class OperationLogServiceImpl extends ServiceImpl<OperationLogMapper, OperationLog>
         implements OperationLogService {
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     @Override
     @Async
     public void saveAsync(OperationLog operationLog) {
@@ -67,4 +73,12 @@ public class OperationLogServiceImpl extends ServiceImpl<OperationLogMapper, Ope
         boolean result = remove(wrapper);
         return result ? 1 : 0; // 简化处理，实际应该返回删除的数量
     }
-}
\ No newline at end of file
+
+    @Override
+    public CursorPage<OperationLog> pageLogs(Long userId, String operation, String cursor, Integer size) {
+        LambdaQueryWrapper<OperationLog> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(userId != null, OperationLog::getUserId, userId)
+               .eq(operation != null && !operation.isEmpty(), OperationLog::getOperation, operation);
+        return keysetPager.page(this, wrapper, cursor, size, OperationLog::getCreateTime, OperationLog::getId);
+    }
+}
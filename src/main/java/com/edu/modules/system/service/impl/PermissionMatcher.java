@@ -0,0 +1,160 @@
+package com.edu.modules.system.service.impl;
+
+import com.edu.modules.system.entity.Permission;
+import com.edu.security.RequestPaths;
+import org.springframework.util.StringUtils;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限资源匹配器（不可变）
+ * 将启用状态的权限按 resource + method 编译为按路径段组织的前缀树，
+ * 请求命中的最具体规则给出所需权限集合（满足其一即可）；未命中任何规则的请求不受权限约束。
+ * <p>
+ * resource 语法与路由策略一致：字面路径 /api/users；单段通配 /api/courses/*；前缀通配 /api/system/**。
+ * method 为空或*表示全部方法，多个用逗号分隔。
+ */
+class PermissionMatcher {
+
+    private static final int METHOD_COUNT = 8; // GET POST PUT DELETE PATCH HEAD OPTIONS 其他
+
+    private final Node root = new Node();
+    private final int ruleCount;
+
+    PermissionMatcher(List<Permission> permissions) {
+        int count = 0;
+        for (int index = 0; index < permissions.size(); index++) {
+            Permission permission = permissions.get(index);
+            if (!Integer.valueOf(1).equals(permission.getStatus())
+                    || !StringUtils.hasText(permission.getResource())) {
+                continue;
+            }
+            for (String resource : permission.getResource().split(",")) {
+                String pattern = resource.trim();
+                if (pattern.startsWith("/")) {
+                    insert(pattern, permission.getMethod(), index);
+                    count++;
+                }
+            }
+        }
+        this.ruleCount = count;
+    }
+
+    int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * 获取请求所需的权限下标集合，未受约束时返回null
+     *
+     * @param path 已解码的请求路径（见 RequestPaths.lookupPath），末尾的 "/" 不参与匹配
+     */
+    BitSet match(String method, String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        return match(root, RequestPaths.normalize(path), 1, methodIndex(method));
+    }
+
+    private BitSet match(Node node, String path, int start, int m) {
+        if (start > path.length()) {
+            BitSet exact = node.exact[m];
+            return exact != null ? exact : node.prefix[m];
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+
+        Node child = node.children.get(segment);
+        if (child != null) {
+            BitSet result = match(child, path, end + 1, m);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (node.wildcard != null && !segment.isEmpty()) {
+            BitSet result = match(node.wildcard, path, end + 1, m);
+            if (result != null) {
+                return result;
+            }
+        }
+        return node.prefix[m];
+    }
+
+    private void insert(String pattern, String methods, int permissionIndex) {
+        boolean prefix = false;
+        String path = pattern;
+        if (path.equals("/**")) {
+            prefix = true;
+            path = "";
+        } else if (path.endsWith("/**")) {
+            prefix = true;
+            path = path.substring(0, path.length() - 3);
+        }
+
+        Node node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = "*".equals(segment) ? node.wildcard() : node.child(segment);
+            }
+        }
+
+        BitSet[] slots = prefix ? node.prefix : node.exact;
+        if (!StringUtils.hasText(methods) || "*".equals(methods.trim())) {
+            for (int k = 0; k < METHOD_COUNT; k++) {
+                require(slots, k, permissionIndex);
+            }
+        } else {
+            for (String method : methods.split(",")) {
+                require(slots, methodIndex(method.trim().toUpperCase()), permissionIndex);
+            }
+        }
+    }
+
+    private static void require(BitSet[] slots, int m, int permissionIndex) {
+        if (slots[m] == null) {
+            slots[m] = new BitSet();
+        }
+        slots[m].set(permissionIndex);
+    }
+
+    private static int methodIndex(String method) {
+        if (method == null) {
+            return METHOD_COUNT - 1;
+        }
+        switch (method) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "DELETE": return 3;
+            case "PATCH": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return METHOD_COUNT - 1;
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private final BitSet[] exact = new BitSet[METHOD_COUNT];
+        private final BitSet[] prefix = new BitSet[METHOD_COUNT];
+
+        Node child(String segment) {
+            return children.computeIfAbsent(segment, k -> new Node());
+        }
+
+        Node wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.edu.modules.system.service.impl;
+
+import com.edu.modules.system.entity.Permission;
+import com.edu.modules.system.entity.Role;
+import com.edu.modules.system.entity.RolePermission;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 角色权限快照（不可变）
+ * 保存全部角色、权限及角色-权限关系，权限按下标编号，角色的权限集合以位图表示
+ */
+class RbacSnapshot {
+
+    private final long version;
+    private final Map<Long, Role> roles;
+    private final Map<String, Long> roleIdByCode;
+    private final List<Permission> permissions;
+    private final Map<Long, Integer> permIndexById;
+    private final Map<String, Integer> permIndexByCode;
+    private final Map<Long, BitSet> rolePermBits;
+    private final PermissionMatcher matcher;
+
+    RbacSnapshot(long version, List<Role> roleList, List<Permission> permissionList,
+                 List<RolePermission> edges) {
+        this.version = version;
+
+        Map<Long, Role> roleMap = new HashMap<>();
+        Map<String, Long> codeMap = new HashMap<>();
+        for (Role role : roleList) {
+            roleMap.put(role.getId(), role);
+            if (role.getRoleCode() != null) {
+                codeMap.put(role.getRoleCode(), role.getId());
+            }
+        }
+
+        List<Permission> perms = new ArrayList<>(permissionList);
+        Map<Long, Integer> indexById = new HashMap<>();
+        Map<String, Integer> indexByCode = new HashMap<>();
+        for (int i = 0; i < perms.size(); i++) {
+            Permission permission = perms.get(i);
+            indexById.put(permission.getId(), i);
+            if (permission.getPermCode() != null) {
+                indexByCode.put(permission.getPermCode(), i);
+            }
+        }
+
+        Map<Long, BitSet> bits = new HashMap<>();
+        for (RolePermission edge : edges) {
+            Integer index = indexById.get(edge.getPermissionId());
+            if (index == null || !roleMap.containsKey(edge.getRoleId())) {
+                continue; // 已删除的角色或权限
+            }
+            bits.computeIfAbsent(edge.getRoleId(), k -> new BitSet(perms.size())).set(index);
+        }
+
+        this.roles = Collections.unmodifiableMap(roleMap);
+        this.roleIdByCode = Collections.unmodifiableMap(codeMap);
+        this.permissions = Collections.unmodifiableList(perms);
+        this.permIndexById = Collections.unmodifiableMap(indexById);
+        this.permIndexByCode = Collections.unmodifiableMap(indexByCode);
+        this.rolePermBits = Collections.unmodifiableMap(bits);
+        this.matcher = new PermissionMatcher(perms);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    Role getRole(Long roleId) {
+        return roles.get(roleId);
+    }
+
+    Long getRoleIdByCode(String roleCode) {
+        return roleIdByCode.get(roleCode);
+    }
+
+    int permissionIndex(String permCode) {
+        Integer index = permIndexByCode.get(permCode);
+        return index != null ? index : -1;
+    }
+
+    Permission getPermission(int index) {
+        return permissions.get(index);
+    }
+
+    PermissionMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * 合并多个角色的权限位图
+     */
+    BitSet effectivePermissions(long[] roleIds) {
+        BitSet result = new BitSet(permissions.size());
+        for (long roleId : roleIds) {
+            BitSet bits = rolePermBits.get(roleId);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取角色拥有的权限
+     */
+    List<Permission> getRolePermissions(Long roleId) {
+        BitSet bits = rolePermBits.get(roleId);
+        if (bits == null) {
+            return Collections.emptyList();
+        }
+        return toPermissions(bits);
+    }
+
+    List<Permission> toPermissions(BitSet bits) {
+        List<Permission> result = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(permissions.get(i));
+        }
+        return result;
+    }
+
+    boolean containsPermission(Long permissionId) {
+        return permIndexById.containsKey(permissionId);
+    }
+}
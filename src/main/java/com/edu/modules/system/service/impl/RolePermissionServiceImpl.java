@@ -13,21 +13,37 @@ import com.edu.modules.system.mapper.UserRoleMapper;
 import com.edu.modules.system.service.RolePermissionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import static com.edu.common.enums.UserRole.roleCodeOf;
+
 /**
  * 角色权限服务实现
+ * 角色、权限及其关联保存在内存快照中，用户的有效权限以位图缓存，权限判断不访问数据库；
+ * 各变更方法在写库后精确失效对应的快照或用户缓存
  */
 @Slf4j
 @Service
 public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         implements RolePermissionService {
 
+    /**
+     * 未登录调用方使用的角色编码
+     */
+    private static final String ANONYMOUS_ROLE = "ROLE_ANONYMOUS";
+
     @Autowired
     private RoleMapper roleMapper;
 
@@ -40,23 +56,49 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
     @Autowired
     private UserRoleMapper userRoleMapper;
 
+    @Value("${rbac.user-cache-size:100000}")
+    private int userCacheSize;
+
+    /**
+     * 角色/权限/角色权限关系的版本号，任一变更即递增
+     */
+    private final AtomicLong rbacVersion = new AtomicLong();
+
+    /**
+     * 用户角色关系的版本号，用于丢弃加载期间被失效的结果
+     */
+    private final AtomicLong userRoleVersion = new AtomicLong();
+
+    private volatile RbacSnapshot snapshot;
+
+    private final Map<Long, UserGrant> userGrants = new ConcurrentHashMap<>();
+
     // ========== 角色管理 ==========
 
     @Override
     public Role createRole(Role role) {
         roleMapper.insert(role);
+        invalidateSnapshot();
         log.info("角色创建成功: {}", role.getRoleName());
         return role;
     }
 
     @Override
     public boolean updateRole(Role role) {
-        return roleMapper.updateById(role) > 0;
+        boolean success = roleMapper.updateById(role) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
     public boolean deleteRole(Long roleId) {
-        return roleMapper.deleteById(roleId) > 0;
+        boolean success = roleMapper.deleteById(roleId) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
@@ -76,18 +118,27 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
     @Override
     public Permission createPermission(Permission permission) {
         permissionMapper.insert(permission);
+        invalidateSnapshot();
         log.info("权限创建成功: {}", permission.getPermName());
         return permission;
     }
 
     @Override
     public boolean updatePermission(Permission permission) {
-        return permissionMapper.updateById(permission) > 0;
+        boolean success = permissionMapper.updateById(permission) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
     public boolean deletePermission(Long permissionId) {
-        return permissionMapper.deleteById(permissionId) > 0;
+        boolean success = permissionMapper.deleteById(permissionId) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
@@ -102,7 +153,11 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         UserRole userRole = new UserRole();
         userRole.setUserId(userId);
         userRole.setRoleId(roleId);
-        return userRoleMapper.insert(userRole) > 0;
+        boolean success = userRoleMapper.insert(userRole) > 0;
+        if (success) {
+            invalidateUser(userId);
+        }
+        return success;
     }
 
     @Override
@@ -110,7 +165,11 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         LambdaQueryWrapper<UserRole> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(UserRole::getUserId, userId)
                 .eq(UserRole::getRoleId, roleId);
-        return userRoleMapper.delete(wrapper) > 0;
+        boolean success = userRoleMapper.delete(wrapper) > 0;
+        if (success) {
+            invalidateUser(userId);
+        }
+        return success;
     }
 
     @Override
@@ -118,16 +177,19 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         if (userId == null) {
             return Collections.emptyList();
         }
-        LambdaQueryWrapper<UserRole> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(UserRole::getUserId, userId);
-        List<UserRole> userRoles = userRoleMapper.selectList(wrapper);
-        if (userRoles.isEmpty()) {
+        RbacSnapshot current = getSnapshot();
+        UserGrant grant = getUserGrant(userId, current);
+        if (grant.roleIds.length == 0) {
             return Collections.emptyList();
         }
-        List<Long> roleIds = userRoles.stream()
-                .map(UserRole::getRoleId)
-                .collect(Collectors.toList());
-        return roleMapper.selectBatchIds(roleIds);
+        List<Role> roles = new ArrayList<>(grant.roleIds.length);
+        for (long roleId : grant.roleIds) {
+            Role role = current.getRole(roleId);
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+        return roles;
     }
 
     @Override
@@ -149,7 +211,11 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         RolePermission rp = new RolePermission();
         rp.setRoleId(roleId);
         rp.setPermissionId(permissionId);
-        return rolePermissionMapper.insert(rp) > 0;
+        boolean success = rolePermissionMapper.insert(rp) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
@@ -157,7 +223,11 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         LambdaQueryWrapper<RolePermission> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(RolePermission::getRoleId, roleId)
                 .eq(RolePermission::getPermissionId, permissionId);
-        return rolePermissionMapper.delete(wrapper) > 0;
+        boolean success = rolePermissionMapper.delete(wrapper) > 0;
+        if (success) {
+            invalidateSnapshot();
+        }
+        return success;
     }
 
     @Override
@@ -176,42 +246,170 @@ public class RolePermissionServiceImpl extends ServiceImpl<RoleMapper, Role>
         if (roleId == null) {
             return Collections.emptyList();
         }
-        LambdaQueryWrapper<RolePermission> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(RolePermission::getRoleId, roleId);
-        List<RolePermission> rps = rolePermissionMapper.selectList(wrapper);
-        if (rps.isEmpty()) {
-            return Collections.emptyList();
-        }
-        List<Long> permissionIds = rps.stream()
-                .map(RolePermission::getPermissionId)
-                .collect(Collectors.toList());
-        return permissionMapper.selectBatchIds(permissionIds);
+        return getSnapshot().getRolePermissions(roleId);
     }
 
     @Override
     public List<Permission> getUserPermissions(Long userId) {
-        List<Role> roles = getUserRoles(userId);
-        if (roles.isEmpty()) {
+        if (userId == null) {
             return Collections.emptyList();
         }
-        List<Permission> permissions = new ArrayList<>();
-        for (Role role : roles) {
-            permissions.addAll(getRolePermissions(role.getId()));
-        }
-        return permissions.stream().distinct().collect(Collectors.toList());
+        RbacSnapshot current = getSnapshot();
+        return current.toPermissions(getUserGrant(userId, current).permBits);
     }
 
     @Override
     public boolean hasPermission(Long userId, String permissionCode) {
-        List<Permission> permissions = getUserPermissions(userId);
-        return permissions.stream()
-                .anyMatch(p -> permissionCode.equals(p.getPermCode()));
+        if (userId == null || permissionCode == null) {
+            return false;
+        }
+        RbacSnapshot current = getSnapshot();
+        int index = current.permissionIndex(permissionCode);
+        return index >= 0 && getUserGrant(userId, current).permBits.get(index);
     }
 
     @Override
     public boolean hasRole(Long userId, String roleCode) {
-        List<Role> roles = getUserRoles(userId);
-        return roles.stream()
-                .anyMatch(r -> roleCode.equals(r.getRoleCode()));
+        if (userId == null || roleCode == null) {
+            return false;
+        }
+        RbacSnapshot current = getSnapshot();
+        Long roleId = current.getRoleIdByCode(roleCode);
+        if (roleId == null) {
+            return false;
+        }
+        for (long id : getUserGrant(userId, current).roleIds) {
+            if (id == roleId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean checkRequest(Long userId, Integer userRole, String method, String path) {
+        RbacSnapshot current = getSnapshot();
+        BitSet required = current.getMatcher().match(method, path);
+        if (required == null) {
+            return true;
+        }
+        if (userId == null) {
+            // 未登录的调用方只拥有匿名角色的权限，未配置匿名角色时一律拒绝
+            Long roleId = current.getRoleIdByCode(ANONYMOUS_ROLE);
+            return roleId != null && current.effectivePermissions(new long[]{roleId}).intersects(required);
+        }
+        UserGrant grant = getUserGrant(userId, current);
+        if (grant.roleIds.length > 0) {
+            return grant.permBits.intersects(required);
+        }
+        // 仅未单独分配角色的用户按用户表中的角色判断；已分配角色的用户以分配结果为准，便于收窄或撤销权限
+        String roleCode = roleCodeOf(userRole);
+        if (roleCode != null) {
+            Long roleId = current.getRoleIdByCode(roleCode);
+            return roleId != null && current.effectivePermissions(new long[]{roleId}).intersects(required);
+        }
+        return false;
+    }
+
+    /**
+     * 启动后预先加载快照，避免首个请求承担编译开销
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            RbacSnapshot current = getSnapshot();
+            log.info("权限资源规则编译完成: {} 条", current.getMatcher().getRuleCount());
+        } catch (Exception e) {
+            log.warn("角色权限快照预加载失败，将在首次访问时加载: {}", e.getMessage());
+        }
+    }
+
+    // ========== 快照缓存 ==========
+
+    /**
+     * 获取当前快照，不存在时从数据库整体加载（三次查询）
+     */
+    private RbacSnapshot getSnapshot() {
+        RbacSnapshot current = snapshot;
+        long version = rbacVersion.get();
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            version = rbacVersion.get();
+            if (current != null && current.getVersion() == version) {
+                return current;
+            }
+            RbacSnapshot loaded = new RbacSnapshot(version,
+                    roleMapper.selectList(null),
+                    permissionMapper.selectList(null),
+                    rolePermissionMapper.selectList(null));
+            // 加载期间发生变更则不缓存，下次读取重新加载
+            if (rbacVersion.get() == version) {
+                snapshot = loaded;
+                log.debug("角色权限快照加载完成: version={}", version);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 获取用户的角色与有效权限位图
+     * 用户角色关系只查询一次；快照版本变化时仅在内存中重新合并位图
+     */
+    private UserGrant getUserGrant(Long userId, RbacSnapshot current) {
+        UserGrant grant = userGrants.get(userId);
+        if (grant != null) {
+            if (grant.version == current.getVersion()) {
+                return grant;
+            }
+            UserGrant rebuilt = new UserGrant(current.getVersion(), grant.roleIds,
+                    current.effectivePermissions(grant.roleIds));
+            userGrants.replace(userId, grant, rebuilt);
+            return rebuilt;
+        }
+
+        long edgeVersion = userRoleVersion.get();
+        LambdaQueryWrapper<UserRole> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(UserRole::getUserId, userId);
+        long[] roleIds = userRoleMapper.selectList(wrapper).stream()
+                .mapToLong(UserRole::getRoleId)
+                .distinct()
+                .toArray();
+        UserGrant loaded = new UserGrant(current.getVersion(), roleIds, current.effectivePermissions(roleIds));
+
+        if (userRoleVersion.get() == edgeVersion) {
+            if (userGrants.size() >= userCacheSize) {
+                userGrants.clear();
+            }
+            userGrants.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private void invalidateSnapshot() {
+        rbacVersion.incrementAndGet();
+        snapshot = null;
+    }
+
+    private void invalidateUser(Long userId) {
+        userRoleVersion.incrementAndGet();
+        userGrants.remove(userId);
+    }
+
+    /**
+     * 用户授权信息：角色ID列表及合并后的权限位图
+     */
+    private static final class UserGrant {
+        private final long version;
+        private final long[] roleIds;
+        private final BitSet permBits;
+
+        private UserGrant(long version, long[] roleIds, BitSet permBits) {
+            this.version = version;
+            this.roleIds = roleIds;
+            this.permBits = permBits;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.edu.modules.user.controller;
 
+import com.edu.common.result.CursorPage;
 import com.edu.common.result.Result;
 import com.edu.modules.user.entity.User;
 import com.edu.modules.user.service.UserService;
@@ -13,7 +14,6 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
-import java.util.List;
 
 /**
  * 用户管理控制器
@@ -30,40 +30,24 @@ public class UserController {
 
     @ApiOperation("获取用户列表")
     @GetMapping
-    public Result<List<User>> getUsers(
+    public Result<CursorPage<User>> getUsers(
             @ApiParam("角色：1-学生，2-讲师，3-管理员") @RequestParam(required = false) Integer role,
             @ApiParam("状态：0-禁用，1-正常") @RequestParam(required = false) Integer status,
-            @ApiParam("关键词（用户名/昵称）") @RequestParam(required = false) String keyword) {
-        
-        List<User> users;
-        if (role != null) {
-            users = userService.lambdaQuery().eq(User::getRole, role).list();
-        } else if (status != null) {
-            users = userService.lambdaQuery().eq(User::getStatus, status).list();
-        } else if (keyword != null && !keyword.isEmpty()) {
-            users = userService.lambdaQuery()
-                    .like(User::getUsername, keyword)
-                    .or()
-                    .like(User::getNickname, keyword)
-                    .list();
-        } else {
-            users = userService.list();
-        }
-        
-        // 清空密码字段
-        users.forEach(user -> user.setPassword(null));
+            @ApiParam("关键词（用户名/昵称）") @RequestParam(required = false) String keyword,
+            @ApiParam("分页游标（上一页返回的nextCursor）") @RequestParam(required = false) String cursor,
+            @ApiParam("每页数量") @RequestParam(required = false) Integer size) {
+
+        CursorPage<User> users = userService.pageUsers(role, status, keyword, cursor, size);
         return Result.success(users);
     }
 
     @ApiOperation("获取用户详情")
     @GetMapping("/{id}")
     public Result<User> getUser(@ApiParam("用户ID") @PathVariable Long id) {
-        User user = userService.getById(id);
+        User user = userService.getProfile(id);
         if (user == null) {
             return Result.fail("用户不存在");
         }
-        // 清空密码字段
-        user.setPassword(null);
         return Result.success(user);
     }
 
@@ -115,11 +99,7 @@ public class UserController {
             @ApiParam("用户ID") @PathVariable Long id,
             @ApiParam("状态：0-禁用，1-正常") @NotNull(message = "状态不能为空") @RequestParam Integer status) {
 
-        User user = new User();
-        user.setId(id);
-        user.setStatus(status);
-        
-        boolean success = userService.updateById(user);
+        boolean success = userService.updateUserStatus(id, status);
         return success ? Result.success("用户状态更新成功") : Result.fail("用户状态更新失败");
     }
 
@@ -134,12 +114,10 @@ public class UserController {
             return Result.fail("用户未登录");
         }
 
-        User user = userService.getById(userId);
+        User user = userService.getProfile(userId);
         if (user == null) {
             return Result.fail("用户不存在");
         }
-        // 清空密码字段
-        user.setPassword(null);
         return Result.success(user);
     }
 
@@ -1,8 +1,11 @@
 package com.edu.modules.user.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.result.CursorPage;
 import com.edu.modules.user.entity.User;
 
+import java.util.Map;
+
 /**
  * 用户服务接口
  */
@@ -23,6 +26,16 @@ public interface UserService extends IService<User> {
      */
     User login(String username, String password);
 
+    /**
+     * 用户登录（按账号和来源IP限制失败次数）
+     */
+    User login(String username, String password, String clientIp);
+
+    /**
+     * 获取用户资料（不含密码，优先读缓存）
+     */
+    User getProfile(Long userId);
+
     /**
      * 更新用户信息
      */
@@ -32,4 +45,19 @@ public interface UserService extends IService<User> {
      * 修改密码
      */
     boolean changePassword(Long userId, String oldPassword, String newPassword);
-}
\ No newline at end of file
+
+    /**
+     * 更新用户状态
+     */
+    boolean updateUserStatus(Long userId, Integer status);
+
+    /**
+     * 获取用户缓存命中统计
+     */
+    Map<String, Long> getCacheStats();
+
+    /**
+     * 游标分页查询用户（按创建时间倒序，不含密码）
+     */
+    CursorPage<User> pageUsers(Integer role, Integer status, String keyword, String cursor, Integer size);
+}
@@ -0,0 +1,258 @@
+package com.edu.modules.user.service.impl;
+
+import com.edu.modules.user.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 用户缓存
+ * 一级为本机有界LRU缓存，二级为可选的Redis缓存。
+ * 用户资料（不含密码）与密码哈希分开缓存，密码哈希只保存在本机，不写入Redis
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private static final String REDIS_KEY_PREFIX = "user:profile:";
+
+    @Value("${user.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${user.cache.ttl:60000}")
+    private long ttl;
+
+    @Value("${user.cache.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${user.cache.redis-ttl:600000}")
+    private long redisTtl;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Map<Long, Entry<User>> profiles;
+    private Map<Long, Entry<String>> credentials;
+
+    /**
+     * 失效计数，加载期间发生失效时不回填，避免写入旧数据
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong l1Hits = new AtomicLong();
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.profiles = lruMap();
+        this.credentials = lruMap();
+    }
+
+    /**
+     * 获取用户资料（不含密码），返回副本
+     */
+    public User getProfile(Long userId, Supplier<User> loader) {
+        long now = System.currentTimeMillis();
+        User cached = get(profiles, userId, now);
+        if (cached != null) {
+            l1Hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        long epoch = invalidations.get();
+        User profile = redisGet(userId);
+        if (profile != null) {
+            l2Hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            profile = loader.get();
+            if (profile == null) {
+                return null;
+            }
+            profile = toProfile(profile);
+            if (invalidations.get() == epoch) {
+                redisPut(userId, profile);
+            }
+        }
+        if (invalidations.get() == epoch) {
+            put(profiles, userId, profile, now);
+        }
+        return copy(profile);
+    }
+
+    /**
+     * 获取密码哈希（仅本机缓存）
+     */
+    public String getCredential(Long userId, Supplier<String> loader) {
+        long now = System.currentTimeMillis();
+        String cached = get(credentials, userId, now);
+        if (cached != null) {
+            return cached;
+        }
+        long epoch = invalidations.get();
+        String hash = loader.get();
+        if (hash != null && invalidations.get() == epoch) {
+            put(credentials, userId, hash, now);
+        }
+        return hash;
+    }
+
+    /**
+     * 失效指定用户的资料与密码哈希
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            profiles.remove(userId);
+            credentials.remove(userId);
+        }
+        redisDelete(userId);
+    }
+
+    /**
+     * 去掉密码字段的副本
+     */
+    public static User toProfile(User user) {
+        User profile = copy(user);
+        profile.setPassword(null);
+        return profile;
+    }
+
+    public long getL1Hits() {
+        return l1Hits.get();
+    }
+
+    public long getL2Hits() {
+        return l2Hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return profiles.size();
+    }
+
+    private <V> V get(Map<Long, Entry<V>> map, Long userId, long now) {
+        synchronized (this) {
+            Entry<V> entry = map.get(userId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt <= now) {
+                map.remove(userId);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private <V> void put(Map<Long, Entry<V>> map, Long userId, V value, long now) {
+        if (maxSize <= 0) {
+            return;
+        }
+        synchronized (this) {
+            map.put(userId, new Entry<>(value, now + ttl));
+        }
+    }
+
+    private User redisGet(Long userId) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(REDIS_KEY_PREFIX + userId);
+            return json != null ? objectMapper.readValue(json, User.class) : null;
+        } catch (Exception e) {
+            log.warn("读取用户缓存失败: userId={}, {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void redisPut(Long userId, User profile) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(REDIS_KEY_PREFIX + userId, objectMapper.writeValueAsString(profile),
+                    redisTtl, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("写入用户缓存失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private void redisDelete(Long userId) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.delete(REDIS_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("删除用户缓存失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private <V> Map<Long, Entry<V>> lruMap() {
+        return new LinkedHashMap<Long, Entry<V>>(Math.min(Math.max(maxSize, 16), 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static User copy(User source) {
+        User target = new User();
+        target.setId(source.getId());
+        target.setUsername(source.getUsername());
+        target.setPassword(source.getPassword());
+        target.setNickname(source.getNickname());
+        target.setEmail(source.getEmail());
+        target.setPhone(source.getPhone());
+        target.setAvatar(source.getAvatar());
+        target.setGender(source.getGender());
+        target.setBirthday(source.getBirthday());
+        target.setRole(source.getRole());
+        target.setStatus(source.getStatus());
+        target.setCreateTime(source.getCreateTime());
+        target.setUpdateTime(source.getUpdateTime());
+        target.setDeleted(source.getDeleted());
+        return target;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
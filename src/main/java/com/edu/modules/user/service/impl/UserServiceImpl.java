@@ -1,17 +1,26 @@
 package com.edu.modules.user.service.impl;
 
-import cn.hutool.crypto.digest.BCrypt;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.edu.common.enums.ResultCode;
 import com.edu.common.exception.BusinessException;
+import com.edu.common.result.CursorPage;
+import com.edu.common.utils.KeysetPager;
 import com.edu.modules.user.entity.User;
 import com.edu.modules.user.mapper.UserMapper;
 import com.edu.modules.user.service.UserService;
+import com.edu.security.LoginAttemptLimiter;
+import com.edu.security.PasswordHasher;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 用户服务实现
  */
@@ -19,6 +28,18 @@ import org.springframework.util.StringUtils;
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private UserCache userCache;
+
     @Override
     public User findByUsername(String username) {
         if (!StringUtils.hasText(username)) {
@@ -45,7 +66,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         // 创建用户
         User user = new User();
         user.setUsername(username);
-        user.setPassword(BCrypt.hashpw(password, BCrypt.gensalt()));
+        user.setPassword(passwordHasher.hash(password));
         user.setNickname(StringUtils.hasText(nickname) ? nickname : username);
         user.setRole(role != null ? role : 1); // 默认学生角色
         user.setStatus(1); // 默认正常状态
@@ -61,14 +82,23 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
 
     @Override
     public User login(String username, String password) {
+        return login(username, password, null);
+    }
+
+    @Override
+    public User login(String username, String password, String clientIp) {
         // 参数校验
         if (!StringUtils.hasText(username) || !StringUtils.hasText(password)) {
             throw new BusinessException(ResultCode.VALIDATION_ERROR, "用户名和密码不能为空");
         }
 
+        // 失败次数超限时在哈希计算之前拒绝
+        loginAttemptLimiter.checkAllowed(username, clientIp);
+
         // 查找用户
         User user = findByUsername(username);
         if (user == null) {
+            loginAttemptLimiter.recordFailure(username, clientIp);
             throw new BusinessException(ResultCode.VALIDATION_ERROR, "用户不存在");
         }
 
@@ -78,20 +108,37 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
 
         // 验证密码
-        if (!BCrypt.checkpw(password, user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            loginAttemptLimiter.recordFailure(username, clientIp);
             throw new BusinessException(ResultCode.VALIDATION_ERROR, "密码错误");
         }
+        loginAttemptLimiter.recordSuccess(username);
+
+        // 代价因子变更后透明升级哈希
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(user, password);
+        }
 
         log.info("用户登录成功: username={}, id={}", username, user.getId());
         return user;
     }
 
+    @Override
+    public User getProfile(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return userCache.getProfile(userId, () -> getById(userId));
+    }
+
     @Override
     public boolean updateUser(User user) {
         if (user == null || user.getId() == null) {
             return false;
         }
-        return updateById(user);
+        boolean success = updateById(user);
+        userCache.evict(user.getId());
+        return success;
     }
 
     @Override
@@ -100,18 +147,88 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return false;
         }
 
-        User user = getById(userId);
-        if (user == null) {
+        String currentHash = userCache.getCredential(userId, () -> {
+            User user = getById(userId);
+            return user != null ? user.getPassword() : null;
+        });
+        if (currentHash == null) {
             return false;
         }
 
         // 验证旧密码
-        if (!BCrypt.checkpw(oldPassword, user.getPassword())) {
+        if (!passwordHasher.matches(oldPassword, currentHash)) {
             throw new BusinessException(ResultCode.VALIDATION_ERROR, "旧密码错误");
         }
 
         // 更新新密码
-        user.setPassword(BCrypt.hashpw(newPassword, BCrypt.gensalt()));
-        return updateById(user);
+        User user = new User();
+        user.setId(userId);
+        user.setPassword(passwordHasher.hash(newPassword));
+        boolean success = updateById(user);
+        userCache.evict(userId);
+        return success;
+    }
+
+    @Override
+    public boolean updateUserStatus(Long userId, Integer status) {
+        if (userId == null || status == null) {
+            return false;
+        }
+        User user = new User();
+        user.setId(userId);
+        user.setStatus(status);
+        boolean success = updateById(user);
+        userCache.evict(userId);
+        return success;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean success = super.removeById(id);
+        if (id != null) {
+            userCache.evict(Long.valueOf(id.toString()));
+        }
+        return success;
+    }
+
+    @Override
+    public Map<String, Long> getCacheStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("l1Hits", userCache.getL1Hits());
+        stats.put("l2Hits", userCache.getL2Hits());
+        stats.put("misses", userCache.getMisses());
+        stats.put("size", (long) userCache.size());
+        return stats;
+    }
+
+    @Override
+    public CursorPage<User> pageUsers(Integer role, Integer status, String keyword, String cursor, Integer size) {
+        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(role != null, User::getRole, role)
+                .eq(status != null, User::getStatus, status);
+        if (StringUtils.hasText(keyword)) {
+            wrapper.and(w -> w.like(User::getUsername, keyword).or().like(User::getNickname, keyword));
+        }
+        CursorPage<User> page = keysetPager.page(this, wrapper, cursor, size, User::getCreateTime, User::getId);
+        page.getRecords().forEach(user -> user.setPassword(null));
+        return page;
+    }
+
+    private void rehash(User user, String rawPassword) {
+        try {
+            String upgraded = passwordHasher.hash(rawPassword);
+            LambdaUpdateWrapper<User> wrapper = new LambdaUpdateWrapper<>();
+            wrapper.eq(User::getId, user.getId())
+                    .eq(User::getPassword, user.getPassword())
+                    .set(User::getPassword, upgraded);
+            if (update(wrapper)) {
+                userCache.evict(user.getId());
+                user.setPassword(upgraded);
+                log.info("用户密码哈希已升级: id={}", user.getId());
+            }
+        } catch (Exception e) {
+            // 升级失败不影响本次登录
+            log.warn("用户密码哈希升级失败: id={}, {}", user.getId(), e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.edu.security;
+
+import com.edu.common.enums.UserRole;
+
+/**
+ * 当前请求的认证信息（不可变）
+ * 由 JwtAuthenticationFilter 解析一次后绑定到处理线程，并随 TaskDecorator 传递到异步任务
+ */
+public final class AuthContext {
+
+    private final Long userId;
+    private final String username;
+    private final Integer role;
+    private final String tokenId;
+
+    public AuthContext(Long userId, String username, Integer role, String tokenId) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.tokenId = tokenId;
+    }
+
+    static AuthContext of(JwtPrincipal principal) {
+        return new AuthContext(principal.getUserId(), principal.getUsername(),
+                principal.getRole(), principal.getTokenId());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Integer getRole() {
+        return role;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public boolean hasRole(UserRole userRole) {
+        return userRole != null && userRole.getCode().equals(role);
+    }
+
+    public boolean isAdmin() {
+        return hasRole(UserRole.ADMIN);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthContext{userId=" + userId + ", username=" + username + ", role=" + role + "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.edu.security;
+
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 认证信息持有者
+ * 以线程变量保存当前 AuthContext，可注入到服务中使用；非请求线程需经 AuthContextTaskDecorator 传递
+ */
+@Component
+public class AuthContextHolder {
+
+    private static final ThreadLocal<AuthContext> CONTEXT = new ThreadLocal<>();
+
+    /**
+     * 获取当前认证信息，未登录返回null
+     */
+    public AuthContext current() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * 获取当前用户ID，未登录返回null
+     */
+    public Long getUserId() {
+        AuthContext context = CONTEXT.get();
+        return context != null ? context.getUserId() : null;
+    }
+
+    /**
+     * 获取当前认证信息，未登录时抛出401异常
+     */
+    public AuthContext require() {
+        AuthContext context = CONTEXT.get();
+        if (context == null) {
+            throw new BusinessException(ResultCode.UNAUTHORIZED, "用户未登录");
+        }
+        return context;
+    }
+
+    static AuthContext get() {
+        return CONTEXT.get();
+    }
+
+    static void set(AuthContext context) {
+        if (context == null) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(context);
+        }
+    }
+
+    static void clear() {
+        CONTEXT.remove();
+    }
+}
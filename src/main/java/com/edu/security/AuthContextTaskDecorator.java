@@ -0,0 +1,24 @@
+package com.edu.security;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 异步任务认证信息传递
+ * 提交任务时捕获当前 AuthContext，在工作线程执行期间恢复，结束后还原工作线程原有状态
+ */
+public class AuthContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AuthContext captured = AuthContextHolder.get();
+        return () -> {
+            AuthContext previous = AuthContextHolder.get();
+            AuthContextHolder.set(captured);
+            try {
+                runnable.run();
+            } finally {
+                AuthContextHolder.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.edu.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 客户端IP识别
+ * 连接来自可信代理时，从配置的请求头（如 X-Forwarded-For）自右向左跳过可信代理，取第一个不可信地址；
+ * 未配置请求头或连接不是来自可信代理时使用连接地址，客户端自行伪造的请求头不会被采信
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    @Value("${security.client-ip.header:}")
+    private String header;
+
+    @Value("${security.client-ip.trusted-proxies:}")
+    private String trustedProxies;
+
+    private final List<byte[][]> trusted = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (String entry : StringUtils.commaDelimitedListToStringArray(trustedProxies)) {
+            String value = entry.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            int slash = value.indexOf('/');
+            byte[] address = parse(slash >= 0 ? value.substring(0, slash) : value);
+            if (address == null) {
+                log.warn("无效的可信代理地址: {}", value);
+                continue;
+            }
+            int bits = slash >= 0 ? Integer.parseInt(value.substring(slash + 1).trim()) : address.length * 8;
+            trusted.add(new byte[][]{address, mask(address.length, bits)});
+        }
+    }
+
+    /**
+     * 解析请求的客户端IP
+     */
+    public String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (!StringUtils.hasText(header) || !isTrusted(remote)) {
+            return remote;
+        }
+        String forwarded = request.getHeader(header);
+        if (!StringUtils.hasText(forwarded)) {
+            return remote;
+        }
+        String[] hops = forwarded.split(",");
+        String client = remote;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty() || parse(hop) == null) {
+                break; // 无法解析的地址之前的内容不可信
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String ip) {
+        if (trusted.isEmpty() || ip == null) {
+            return false;
+        }
+        byte[] address = parse(ip);
+        if (address == null) {
+            return false;
+        }
+        for (byte[][] range : trusted) {
+            byte[] network = range[0];
+            byte[] mask = range[1];
+            if (network.length != address.length) {
+                continue;
+            }
+            boolean matched = true;
+            for (int i = 0; i < address.length && matched; i++) {
+                matched = (address[i] & mask[i]) == (network[i] & mask[i]);
+            }
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析IP字面量，非IP字面量返回null（不做域名解析）
+     */
+    private static byte[] parse(String ip) {
+        if (ip.indexOf(':') >= 0) {
+            try {
+                // 加方括号后只按IPv6字面量解析，格式错误时直接抛出而不是查询DNS
+                return InetAddress.getByName("[" + ip + "]").getAddress();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        String[] parts = ip.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3) {
+                return null;
+            }
+            int value = 0;
+            for (int k = 0; k < part.length(); k++) {
+                int digit = Character.digit(part.charAt(k), 10);
+                if (digit < 0) {
+                    return null;
+                }
+                value = value * 10 + digit;
+            }
+            if (value > 255) {
+                return null;
+            }
+            address[i] = (byte) value;
+        }
+        return address;
+    }
+
+    private static byte[] mask(int length, int bits) {
+        byte[] mask = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int remaining = bits - i * 8;
+            mask[i] = (byte) (remaining >= 8 ? 0xFF : remaining <= 0 ? 0 : 0xFF << (8 - remaining));
+        }
+        return mask;
+    }
+}
@@ -1,6 +1,9 @@
 package com.edu.security;
 
 import com.edu.common.utils.JwtUtils;
+import com.edu.modules.user.entity.User;
+import com.edu.modules.user.service.UserService;
+import com.edu.security.revocation.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -23,35 +26,90 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private JwtTokenCache jwtTokenCache;
+
+    @Autowired
+    private RoutePolicyMatcher routePolicyMatcher;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserService userService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String requestURI = request.getRequestURI();
+        // 按解码、规范化后的路径匹配，与 Spring MVC 选择处理器的路径一致
+        String requestURI = RequestPaths.lookupPath(request);
+        request.setAttribute(RequestPaths.class.getName(), requestURI);
 
-        // 跳过不需要认证的路径
-        if (isSkipAuth(requestURI)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
+        // 一次查找得到该路径的完整访问策略，公开路径不要求认证
+        RoutePolicy policy = routePolicyMatcher.match(request.getMethod(), requestURI);
+        request.setAttribute("routePolicy", policy);
 
         // 从请求头获取token
         String token = getTokenFromRequest(request);
+        AuthContext context;
+
+        if (policy.isPublic()) {
+            // 携带有效token时绑定认证信息（按身份区分可见范围），无效token按匿名处理
+            context = StringUtils.hasText(token) ? optionalContext(request, token) : null;
+            if (context == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            AuthContextHolder.set(context);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                AuthContextHolder.clear();
+            }
+            return;
+        }
 
         if (StringUtils.hasText(token)) {
             try {
-                // 验证token
-                if (jwtUtils.validateToken(token)) {
-                    // 设置用户信息到请求属性中
-                    String username = jwtUtils.getUsernameFromToken(token);
-                    Long userId = jwtUtils.getUserIdFromToken(token);
-                    Integer role = jwtUtils.getRoleFromToken(token);
+                // 先查已验签缓存，未命中再解析（一次验签）
+                JwtPrincipal principal = jwtTokenCache.get(token);
+                if (principal == null) {
+                    principal = jwtUtils.parseToken(token);
+                    jwtTokenCache.put(token, principal);
+                }
 
-                    request.setAttribute("username", username);
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("role", role);
+                if (principal.isRefreshToken() || tokenRevocationService.isRevoked(principal)) {
+                    log.warn("token已吊销或类型错误: {}", principal);
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("无效的token");
+                    return;
+                }
+
+                if (!principal.isExpired(System.currentTimeMillis())) {
+                    if (!policy.allowsRole(principal.getRole())) {
+                        log.warn("角色无权访问: uri={}, role={}", requestURI, principal.getRole());
+                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                        response.getWriter().write("无权访问");
+                        return;
+                    }
+
+                    // 账号被禁用或删除后立即拒绝（用户资料走缓存，状态变更时失效）
+                    User user = userService.getProfile(principal.getUserId());
+                    if (user == null || user.getStatus() == null || user.getStatus() != 1) {
+                        log.warn("账号不可用: {}", principal);
+                        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                        response.getWriter().write("账号已被禁用");
+                        return;
+                    }
+
+                    // 设置用户信息到请求属性中
+                    request.setAttribute("username", principal.getUsername());
+                    request.setAttribute("userId", principal.getUserId());
+                    request.setAttribute("role", principal.getRole());
+                    context = AuthContext.of(principal);
 
-                    log.debug("用户认证成功: username={}, userId={}, role={}", username, userId, role);
+                    log.debug("用户认证成功: {}", principal);
                 } else {
                     log.warn("无效的token");
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -71,7 +129,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        filterChain.doFilter(request, response);
+        // 绑定认证信息到当前线程，请求结束后清除
+        AuthContextHolder.set(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AuthContextHolder.clear();
+        }
+    }
+
+    /**
+     * 公开路径上的可选认证，token无效、已吊销或账号不可用时返回null
+     */
+    private AuthContext optionalContext(HttpServletRequest request, String token) {
+        try {
+            JwtPrincipal principal = jwtTokenCache.get(token);
+            if (principal == null) {
+                principal = jwtUtils.parseToken(token);
+                jwtTokenCache.put(token, principal);
+            }
+            if (principal.isRefreshToken() || principal.isExpired(System.currentTimeMillis())
+                    || tokenRevocationService.isRevoked(principal)) {
+                return null;
+            }
+            User user = userService.getProfile(principal.getUserId());
+            if (user == null || user.getStatus() == null || user.getStatus() != 1) {
+                return null;
+            }
+            request.setAttribute("username", principal.getUsername());
+            request.setAttribute("userId", principal.getUserId());
+            request.setAttribute("role", principal.getRole());
+            return AuthContext.of(principal);
+        } catch (Exception e) {
+            log.debug("公开路径token解析失败，按匿名处理: {}", e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -84,21 +176,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-
-    /**
-     * 判断是否跳过认证
-     */
-    private boolean isSkipAuth(String requestURI) {
-        // 登录、注册、健康检查接口跳过认证
-        if (requestURI.startsWith("/api/auth/login") ||
-            requestURI.startsWith("/api/auth/register") ||
-            requestURI.startsWith("/api/health") ||
-            requestURI.startsWith("/swagger") ||
-            requestURI.startsWith("/v2/api-docs") ||
-            requestURI.startsWith("/webjars") ||
-            requestURI.startsWith("/swagger-resources")) {
-            return true;
-        }
-        return false;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.edu.security;
+
+import com.edu.common.utils.JwtUtils;
+
+import java.util.Date;
+
+/**
+ * JWT解析结果（不可变）
+ * 一次解析即可得到过滤器所需的全部用户信息，避免重复验签
+ */
+public final class JwtPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final Integer role;
+    private final long expireAt; // 过期时间戳（毫秒）
+    private final String tokenId; // jti，旧版token为null
+    private final String tokenType; // access / refresh
+
+    public JwtPrincipal(Long userId, String username, Integer role, Date expiration,
+                        String tokenId, String tokenType) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expireAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        this.tokenId = tokenId;
+        this.tokenType = tokenType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Integer getRole() {
+        return role;
+    }
+
+    public long getExpireAt() {
+        return expireAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * 是否为刷新令牌（不能用于访问接口）
+     */
+    public boolean isRefreshToken() {
+        return JwtUtils.TYPE_REFRESH.equals(tokenType);
+    }
+
+    /**
+     * 判断在给定时间点是否已过期
+     */
+    public boolean isExpired(long now) {
+        return expireAt <= now;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{userId=" + userId + ", username=" + username + ", role=" + role + ", type=" + tokenType + "}";
+    }
+}
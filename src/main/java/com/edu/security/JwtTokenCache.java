@@ -0,0 +1,116 @@
+package com.edu.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已验签Token缓存
+ * 以Token的SHA-256摘要为键的有界LRU缓存，同一Token的后续请求直接命中，跳过签名校验；
+ * 条目在Token自身过期时间或缓存TTL（取较早者）到达后失效
+ */
+@Slf4j
+@Component
+public class JwtTokenCache {
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${jwt.cache.ttl:300000}")
+    private long ttl;
+
+    private Map<String, Entry> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = new LinkedHashMap<String, Entry>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的解析结果，未命中或已过期返回null
+     */
+    public JwtPrincipal get(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Entry entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.validUntil <= now) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.principal;
+        }
+    }
+
+    /**
+     * 缓存已验签的解析结果
+     */
+    public void put(String token, JwtPrincipal principal) {
+        if (maxSize <= 0 || principal == null) {
+            return;
+        }
+        long validUntil = Math.min(principal.getExpireAt(), System.currentTimeMillis() + ttl);
+        String key = digest(token);
+        synchronized (this) {
+            cache.put(key, new Entry(principal, validUntil));
+        }
+    }
+
+    /**
+     * 移除指定Token的缓存
+     */
+    public void evict(String token) {
+        String key = digest(token);
+        synchronized (this) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // JDK保证支持SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final JwtPrincipal principal;
+        private final long validUntil;
+
+        private Entry(JwtPrincipal principal, long validUntil) {
+            this.principal = principal;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.edu.security;
+
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 登录失败限流器
+ * 按账号和IP分别维护滑动时间窗口内的失败记录，超过阈值后在哈希计算之前直接拒绝
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    @Value("${security.login.max-failures-per-account:5}")
+    private int maxPerAccount;
+
+    @Value("${security.login.max-failures-per-ip:20}")
+    private int maxPerIp;
+
+    @Value("${security.login.window:900000}")
+    private long window;
+
+    @Value("${security.login.max-keys:100000}")
+    private int maxKeys;
+
+    private final Map<String, SlidingWindow> accounts = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindow> ips = new ConcurrentHashMap<>();
+
+    /**
+     * 检查是否允许尝试登录，超限时抛出429异常
+     */
+    public void checkAllowed(String username, String ip) {
+        checkAllowed(username, ip, System.currentTimeMillis());
+    }
+
+    void checkAllowed(String username, String ip, long now) {
+        if (exceeded(accounts, username, maxPerAccount, now)) {
+            log.warn("账号登录失败次数过多: username={}", username);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "登录失败次数过多，请稍后再试");
+        }
+        if (exceeded(ips, ip, maxPerIp, now)) {
+            log.warn("IP登录失败次数过多: ip={}", ip);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "登录失败次数过多，请稍后再试");
+        }
+    }
+
+    /**
+     * 记录一次失败
+     */
+    public void recordFailure(String username, String ip) {
+        recordFailure(username, ip, System.currentTimeMillis());
+    }
+
+    void recordFailure(String username, String ip, long now) {
+        record(accounts, username, now);
+        record(ips, ip, now);
+    }
+
+    /**
+     * 登录成功后清除该账号的失败记录
+     */
+    public void recordSuccess(String username) {
+        if (username != null) {
+            accounts.remove(username);
+        }
+    }
+
+    private boolean exceeded(Map<String, SlidingWindow> windows, String key, int limit, long now) {
+        if (key == null || limit <= 0) {
+            return false;
+        }
+        SlidingWindow w = windows.get(key);
+        return w != null && w.count(now - window) >= limit;
+    }
+
+    private void record(Map<String, SlidingWindow> windows, String key, long now) {
+        if (key == null) {
+            return;
+        }
+        if (windows.size() >= maxKeys) {
+            evictExpired(windows, now);
+        }
+        windows.computeIfAbsent(key, k -> new SlidingWindow()).add(now, now - window);
+    }
+
+    private void evictExpired(Map<String, SlidingWindow> windows, long now) {
+        windows.entrySet().removeIf(e -> e.getValue().count(now - window) == 0);
+        if (windows.size() >= maxKeys) {
+            // 仍然超限说明处于攻击中，整体清空以限制内存
+            log.warn("登录失败记录数超过上限，清空: size={}", windows.size());
+            windows.clear();
+        }
+    }
+
+    /**
+     * 失败时间戳队列
+     */
+    private static final class SlidingWindow {
+        private final ArrayDeque<Long> timestamps = new ArrayDeque<>();
+
+        synchronized void add(long now, long since) {
+            prune(since);
+            timestamps.addLast(now);
+        }
+
+        synchronized int count(long since) {
+            prune(since);
+            return timestamps.size();
+        }
+
+        private void prune(long since) {
+            while (!timestamps.isEmpty() && timestamps.peekFirst() <= since) {
+                timestamps.removeFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.edu.security;
+
+import cn.hutool.crypto.digest.BCrypt;
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希器
+ * BCrypt计算在独立的有界线程池中执行，排队已满时立即拒绝（429），
+ * 避免登录高峰占满Servlet线程
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    @Value("${security.password.bcrypt-cost:10}")
+    private int cost;
+
+    @Value("${security.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.timeout:5000}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希线程池初始化: threads={}, queue={}, cost={}", threads, queueCapacity, cost);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 使用当前配置的代价因子生成哈希
+     */
+    public String hash(String rawPassword) {
+        return submit(() -> BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost)));
+    }
+
+    /**
+     * 校验密码
+     */
+    public boolean matches(String rawPassword, String hashed) {
+        if (hashed == null) {
+            return false;
+        }
+        return submit(() -> BCrypt.checkpw(rawPassword, hashed));
+    }
+
+    /**
+     * 判断已有哈希的代价因子是否与当前配置不同
+     */
+    public boolean needsRehash(String hashed) {
+        // 格式：$2a$10$...
+        if (hashed == null || hashed.length() < 7 || hashed.charAt(0) != '$') {
+            return true;
+        }
+        int end = hashed.indexOf('$', 1);
+        if (end < 0 || end + 3 > hashed.length()) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(hashed.substring(end + 1, end + 3)) != cost;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("密码哈希线程池已满，拒绝请求: queue={}", executor.getQueue().size());
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "系统繁忙，请稍后再试");
+        }
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "系统繁忙，请稍后再试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("密码校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.edu.security;
+
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 请求路径规范化
+ * 路由策略与权限规则按 Spring MVC 选择处理器时所用的路径匹配：去掉上下文路径与 ";" 参数、URL 解码、
+ * 合并重复的 "/"，并去掉末尾的 "/"（MVC 默认开启尾斜杠匹配，/a/ 与 /a 由同一处理器处理）
+ */
+public final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    /**
+     * 获取用于规则匹配的请求路径
+     */
+    public static String lookupPath(HttpServletRequest request) {
+        return normalize(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    /**
+     * 去掉末尾的 "/"（根路径保留）
+     */
+    public static String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == path.length() ? path : path.substring(0, end);
+    }
+}
@@ -0,0 +1,80 @@
+package com.edu.security;
+
+import com.edu.common.enums.UserRole;
+
+/**
+ * 路由访问策略（不可变）
+ */
+public final class RoutePolicy {
+
+    /**
+     * 访问级别
+     */
+    public enum Access {
+        PUBLIC,         // 公开，无需token（携带有效token时仍识别身份）
+        AUTHENTICATED,  // 需登录
+        ROLE            // 需指定角色
+    }
+
+    private final String pattern;
+    private final Access access;
+    private final int roleMask;   // 按UserRole.code置位
+    private final String rateClass;
+
+    public RoutePolicy(String pattern, Access access, int roleMask, String rateClass) {
+        this.pattern = pattern;
+        this.access = access;
+        this.roleMask = roleMask;
+        this.rateClass = rateClass;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public Access getAccess() {
+        return access;
+    }
+
+    public String getRateClass() {
+        return rateClass;
+    }
+
+    public boolean isPublic() {
+        return access == Access.PUBLIC;
+    }
+
+    /**
+     * 判断角色是否满足该策略
+     */
+    public boolean allowsRole(Integer role) {
+        if (access != Access.ROLE) {
+            return true;
+        }
+        return role != null && role > 0 && role < 32 && (roleMask & (1 << role)) != 0;
+    }
+
+    /**
+     * 将角色名列表转换为位掩码
+     */
+    public static int toRoleMask(String roles) {
+        int mask = 0;
+        if (roles == null) {
+            return mask;
+        }
+        for (String name : roles.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            UserRole role = UserRole.valueOf(trimmed.toUpperCase());
+            mask |= 1 << role.getCode();
+        }
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return "RoutePolicy{pattern=" + pattern + ", access=" + access + ", rateClass=" + rateClass + "}";
+    }
+}
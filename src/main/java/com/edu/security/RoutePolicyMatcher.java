@@ -0,0 +1,235 @@
+package com.edu.security;
+
+import com.edu.common.config.RoutePolicyConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 路由策略匹配器
+ * 启动时将 security.routes 编译为字符前缀树，每次请求一次查找即可得到完整策略，查找过程不分配对象。
+ * <p>
+ * 模式语法：字面路径 /api/auth/login；单段通配 /api/courses/*；前缀通配 /api/health/**。
+ * 字面字符优先于通配段，更长的匹配优先于前缀通配；指定方法的规则优先于不限方法的规则。
+ */
+@Slf4j
+@Component
+public class RoutePolicyMatcher {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS"};
+    private static final int METHOD_COUNT = METHODS.length + 1; // 最后一位表示其他方法
+
+    @Autowired
+    private RoutePolicyConfig routePolicyConfig;
+
+    private Node root;
+    private RoutePolicy defaultPolicy;
+
+    @PostConstruct
+    public void init() {
+        RoutePolicy.Access defaultAccess = RoutePolicy.Access.valueOf(routePolicyConfig.getDefaultAccess().toUpperCase());
+        this.defaultPolicy = new RoutePolicy("<default>", defaultAccess, 0, null);
+
+        Node newRoot = new Node();
+        // 先编译不限方法的规则，再由指定方法的规则覆盖
+        for (RoutePolicyConfig.Route route : routePolicyConfig.getRoutes()) {
+            if (isAnyMethod(route.getMethods())) {
+                insert(newRoot, route);
+            }
+        }
+        for (RoutePolicyConfig.Route route : routePolicyConfig.getRoutes()) {
+            if (!isAnyMethod(route.getMethods())) {
+                insert(newRoot, route);
+            }
+        }
+        newRoot.freeze();
+        this.root = newRoot;
+        log.info("路由策略编译完成: {} 条规则", routePolicyConfig.getRoutes().size());
+    }
+
+    /**
+     * 查找请求对应的策略，未匹配时返回默认策略
+     *
+     * @param path 已解码的请求路径（见 RequestPaths.lookupPath），末尾的 "/" 不参与匹配
+     */
+    public RoutePolicy match(String method, String path) {
+        if (path == null || path.isEmpty()) {
+            return defaultPolicy;
+        }
+        path = RequestPaths.normalize(path);
+        RoutePolicy policy = match(root, path, 0, methodIndex(method));
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    private RoutePolicy match(Node node, String path, int i, int m) {
+        int len = path.length();
+        if (i == len) {
+            RoutePolicy exact = node.exact[m];
+            return exact != null ? exact : node.prefix[m];
+        }
+
+        char c = path.charAt(i);
+        Node child = node.find(c);
+        if (child != null) {
+            RoutePolicy result = match(child, path, i + 1, m);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        if (node.wildcard != null && c != '/') {
+            int j = path.indexOf('/', i);
+            RoutePolicy result = match(node.wildcard, path, j < 0 ? len : j, m);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        // 前缀通配只在段边界生效
+        if (c == '/') {
+            return node.prefix[m];
+        }
+        return null;
+    }
+
+    private void insert(Node root, RoutePolicyConfig.Route route) {
+        String pattern = route.getPattern();
+        if (!StringUtils.hasText(pattern) || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("路由模式必须以/开头: " + pattern);
+        }
+
+        boolean prefix = false;
+        String path = pattern;
+        if (path.equals("/**")) {
+            prefix = true;
+            path = "";
+        } else if (path.endsWith("/**")) {
+            prefix = true;
+            path = path.substring(0, path.length() - 3);
+        }
+
+        Node node = root;
+        if (!path.isEmpty()) {
+            for (String segment : path.substring(1).split("/", -1)) {
+                node = node.literal('/');
+                if ("*".equals(segment)) {
+                    node = node.wildcard();
+                } else {
+                    for (int k = 0; k < segment.length(); k++) {
+                        node = node.literal(segment.charAt(k));
+                    }
+                }
+            }
+        }
+
+        RoutePolicy.Access access = RoutePolicy.Access.valueOf(route.getAccess().trim().toUpperCase());
+        RoutePolicy policy = new RoutePolicy(pattern, access, RoutePolicy.toRoleMask(route.getRoles()),
+                route.getRateClass());
+        RoutePolicy[] slots = prefix ? node.prefix : node.exact;
+        boolean[] explicit = prefix ? node.prefixExplicit : node.exactExplicit;
+
+        if (isAnyMethod(route.getMethods())) {
+            for (int k = 0; k < METHOD_COUNT; k++) {
+                setSlot(slots, explicit, k, policy, false);
+            }
+        } else {
+            for (String method : route.getMethods().split(",")) {
+                setSlot(slots, explicit, methodIndex(method.trim().toUpperCase()), policy, true);
+            }
+        }
+    }
+
+    private void setSlot(RoutePolicy[] slots, boolean[] explicit, int index, RoutePolicy policy, boolean specific) {
+        RoutePolicy existing = slots[index];
+        // 同优先级的规则先定义者生效；指定方法的规则可覆盖不限方法的规则
+        if (existing != null && (!specific || explicit[index])) {
+            log.warn("路由规则重复，忽略后者: {} / {}", existing.getPattern(), policy.getPattern());
+            return;
+        }
+        slots[index] = policy;
+        explicit[index] = specific;
+    }
+
+    private static boolean isAnyMethod(String methods) {
+        return !StringUtils.hasText(methods) || "*".equals(methods.trim());
+    }
+
+    private static int methodIndex(String method) {
+        if (method == null) {
+            return METHOD_COUNT - 1;
+        }
+        switch (method) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "DELETE": return 3;
+            case "PATCH": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return METHOD_COUNT - 1;
+        }
+    }
+
+    /**
+     * 前缀树节点，编译完成后子节点转为有序数组以便二分查找
+     */
+    private static final class Node {
+        private Map<Character, Node> building = new TreeMap<>();
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private final RoutePolicy[] exact = new RoutePolicy[METHOD_COUNT];
+        private final RoutePolicy[] prefix = new RoutePolicy[METHOD_COUNT];
+        private final boolean[] exactExplicit = new boolean[METHOD_COUNT];
+        private final boolean[] prefixExplicit = new boolean[METHOD_COUNT];
+
+        Node literal(char c) {
+            return building.computeIfAbsent(c, k -> new Node());
+        }
+
+        Node wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+
+        void freeze() {
+            keys = new char[building.size()];
+            children = new Node[building.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : building.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = entry.getValue();
+                children[i].freeze();
+                i++;
+            }
+            if (wildcard != null) {
+                wildcard.freeze();
+            }
+            building = null;
+        }
+
+        Node find(char c) {
+            int lo = 0;
+            int hi = keys.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char k = keys[mid];
+                if (k < c) {
+                    lo = mid + 1;
+                } else if (k > c) {
+                    hi = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.edu.security.revocation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存吊销存储（单机部署或本地开发使用）
+ */
+@Component
+@ConditionalOnProperty(prefix = "jwt.revocation", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean revoke(String tokenId, long expireAt) {
+        return revoked.putIfAbsent(tokenId, expireAt) == null;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Long expireAt = revoked.get(tokenId);
+        return expireAt != null && expireAt > System.currentTimeMillis();
+    }
+
+    @Override
+    public Collection<String> listRevoked() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expireAt -> expireAt <= now);
+        List<String> result = new ArrayList<>(revoked.size());
+        result.addAll(revoked.keySet());
+        return result;
+    }
+}
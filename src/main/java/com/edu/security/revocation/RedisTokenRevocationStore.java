@@ -0,0 +1,53 @@
+package com.edu.security.revocation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis吊销存储（多节点共享）
+ * 每条记录一个带TTL的键用于精确判断，另维护按过期时间排序的有序集合用于全量同步
+ */
+@Component
+@ConditionalOnProperty(prefix = "jwt.revocation", name = "store", havingValue = "redis")
+public class RedisTokenRevocationStore implements TokenRevocationStore {
+
+    private static final String KEY_PREFIX = "jwt:revoked:";
+    private static final String INDEX_KEY = "jwt:revoked";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Override
+    public boolean revoke(String tokenId, long expireAt) {
+        long ttl = expireAt - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return false;
+        }
+        Boolean created = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + tokenId, "1", ttl, TimeUnit.MILLISECONDS);
+        if (Boolean.TRUE.equals(created)) {
+            redisTemplate.opsForZSet().add(INDEX_KEY, tokenId, expireAt);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+
+    @Override
+    public Collection<String> listRevoked() {
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(INDEX_KEY, 0, now);
+        Set<String> ids = redisTemplate.opsForZSet().rangeByScore(INDEX_KEY, now, Double.MAX_VALUE);
+        return ids != null ? ids : Collections.emptySet();
+    }
+}
@@ -0,0 +1,103 @@
+package com.edu.security.revocation;
+
+import com.edu.security.JwtPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token吊销服务
+ * 本地布隆过滤器保存已吊销的jti，并定期与吊销存储全量同步；
+ * 绝大多数未吊销的token在本地即可判定，只有疑似命中时才查询吊销存储
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Value("${jwt.revocation.bloom-size:100000}")
+    private int bloomSize;
+
+    @Value("${jwt.revocation.bloom-fpp:0.001}")
+    private double bloomFpp;
+
+    @Value("${jwt.revocation.sync-interval:10000}")
+    private long syncInterval;
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * 本节点最近吊销的jti，重建时补入，避免同步期间的吊销丢失
+     */
+    private final Map<String, Long> recentlyRevoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.bloomFilter = new BloomFilter(bloomSize, bloomFpp);
+        sync();
+    }
+
+    /**
+     * 吊销token
+     *
+     * @return 首次吊销返回true
+     */
+    public boolean revoke(JwtPrincipal principal) {
+        if (principal == null || principal.getTokenId() == null) {
+            return false;
+        }
+        boolean first = revocationStore.revoke(principal.getTokenId(), principal.getExpireAt());
+        recentlyRevoked.put(principal.getTokenId(), System.currentTimeMillis());
+        // 重建读取 recentlyRevoked 时可能尚未包含本次吊销，写入期间若有新过滤器发布则再写入一次
+        BloomFilter filter;
+        do {
+            filter = bloomFilter;
+            filter.put(principal.getTokenId());
+        } while (filter != bloomFilter);
+        return first;
+    }
+
+    /**
+     * 判断token是否已吊销
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        String tokenId = principal.getTokenId();
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        return revocationStore.isRevoked(tokenId);
+    }
+
+    /**
+     * 与吊销存储同步，重建布隆过滤器（同时清除已过期记录）
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:10000}")
+    public void sync() {
+        try {
+            Collection<String> revoked = revocationStore.listRevoked();
+            BloomFilter rebuilt = new BloomFilter(Math.max(bloomSize, revoked.size() * 2), bloomFpp);
+            for (String tokenId : revoked) {
+                rebuilt.put(tokenId);
+            }
+
+            // 补入本节点最近的吊销后再发布，发布前后都不会出现漏判的窗口
+            long since = System.currentTimeMillis() - syncInterval * 2;
+            recentlyRevoked.values().removeIf(time -> time < since);
+            for (String tokenId : recentlyRevoked.keySet()) {
+                rebuilt.put(tokenId);
+            }
+            this.bloomFilter = rebuilt;
+        } catch (Exception e) {
+            log.warn("同步Token吊销列表失败: {}", e.getMessage());
+        }
+    }
+}
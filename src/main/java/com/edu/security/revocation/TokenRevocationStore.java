@@ -0,0 +1,29 @@
+package com.edu.security.revocation;
+
+import java.util.Collection;
+
+/**
+ * Token吊销存储
+ * 以jti标识已吊销的token，记录保留到token自身过期为止
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * 吊销token
+     *
+     * @param tokenId  jti
+     * @param expireAt token过期时间戳（毫秒），到期后记录可清除
+     * @return 首次吊销返回true，已吊销过返回false
+     */
+    boolean revoke(String tokenId, long expireAt);
+
+    /**
+     * 判断token是否已吊销
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * 获取全部未过期的吊销记录，用于同步本地布隆过滤器
+     */
+    Collection<String> listRevoked();
+}
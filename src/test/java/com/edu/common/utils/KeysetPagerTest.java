@@ -0,0 +1,118 @@
+package com.edu.common.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import com.edu.modules.course.entity.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 键集分页游标编解码测试（纯逻辑，不启动容器）
+ */
+public class KeysetPagerTest {
+
+    private static final List<SFunction<Course, ?>> TIME_ID = Arrays.asList(Course::getCreateTime, Course::getId);
+
+    private KeysetPager pager;
+
+    @BeforeEach
+    public void setUp() {
+        pager = new KeysetPager();
+        ReflectionTestUtils.setField(pager, "defaultSize", 20);
+        ReflectionTestUtils.setField(pager, "maxSize", 100);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Course course = course(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123000000), 42L);
+        String cursor = pager.encode(course, TIME_ID);
+        assertArrayEquals(new Object[]{course.getCreateTime(), 42L}, pager.decode(cursor, 2));
+    }
+
+    @Test
+    public void testRoundTripNullAndInteger() {
+        Course course = course(null, 7L);
+        course.setLevel(3);
+        List<SFunction<Course, ?>> keys = Arrays.asList(Course::getCreateTime, Course::getLevel, Course::getId);
+        assertArrayEquals(new Object[]{null, 3, 7L}, pager.decode(pager.encode(course, keys), 3));
+    }
+
+    @Test
+    public void testCursorIsUrlSafe() {
+        String cursor = pager.encode(course(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE), TIME_ID);
+        assertEquals(-1, cursor.indexOf('+'));
+        assertEquals(-1, cursor.indexOf('/'));
+        assertEquals(-1, cursor.indexOf('='));
+    }
+
+    @Test
+    public void testMalformedCursorRejected() {
+        assertRejected("!!!not-base64!!!", 2);
+        assertRejected("", 2);
+        assertRejected(raw("garbage"), 2);
+    }
+
+    @Test
+    public void testTamperedCursorRejected() {
+        // 版本不符、列数不符、类型标记未知、取值无法解析
+        assertRejected(raw("v0|t2024-01-01T00:00|l1"), 2);
+        assertRejected(raw("v1|l1"), 2);
+        assertRejected(raw("v1|t2024-01-01T00:00|l1|l2"), 2);
+        assertRejected(raw("v1|t2024-01-01T00:00|x1"), 2);
+        assertRejected(raw("v1|t2024-13-01T00:00|l1"), 2);
+        assertRejected(raw("v1|t2024-01-01T00:00|l1 OR 1=1"), 2);
+        assertRejected(raw("v1|t2024-01-01T00:00|"), 2);
+    }
+
+    @Test
+    public void testPageRejectsBadCursorBeforeQuery() {
+        @SuppressWarnings("unchecked")
+        IService<Course> service = mock(IService.class);
+        BusinessException e = assertThrows(BusinessException.class, () -> pager.page(service,
+                new LambdaQueryWrapper<>(), raw("v1|tbad|l1"), 10, Course::getCreateTime, Course::getId));
+        assertEquals(ResultCode.VALIDATION_ERROR, e.getResultCode());
+        verify(service, never()).list(any());
+    }
+
+    @Test
+    public void testResolveSize() {
+        assertEquals(20, pager.resolveSize(null));
+        assertEquals(20, pager.resolveSize(0));
+        assertEquals(5, pager.resolveSize(5));
+        assertEquals(100, pager.resolveSize(1000));
+    }
+
+    private void assertRejected(String cursor, int keyCount) {
+        BusinessException e = assertThrows(BusinessException.class, () -> pager.decode(cursor, keyCount));
+        assertEquals(ResultCode.VALIDATION_ERROR, e.getResultCode());
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Course course(LocalDateTime createTime, Long id) {
+        Course course = new Course();
+        course.setCreateTime(createTime);
+        course.setId(id);
+        return course;
+    }
+}
@@ -12,7 +12,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * 课程管理模块测试
@@ -127,6 +134,66 @@ public class CourseModuleTest {
         courseService.deleteCourse(createdCourse.getId());
     }
 
+    /**
+     * 测试大课程的课时重排耗时（单条语句完成）
+     */
+    @Test
+    public void testLessonSortPerformance() {
+        Course course = new Course();
+        course.setTitle("测试课程");
+        course.setInstructorId(2L);
+        Course createdCourse = courseService.createCourse(course);
+
+        CourseChapter chapter = new CourseChapter();
+        chapter.setCourseId(createdCourse.getId());
+        chapter.setTitle("测试章节");
+        CourseChapter createdChapter = courseChapterService.createChapter(chapter);
+
+        // 批量创建400个课时
+        List<CourseLesson> lessons = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            CourseLesson lesson = new CourseLesson();
+            lesson.setChapterId(createdChapter.getId());
+            lesson.setTitle("课时" + i);
+            lesson.setSortOrder(i);
+            lessons.add(lesson);
+        }
+        courseLessonService.saveBatch(lessons);
+
+        // 倒序重排
+        List<Long> lessonIds = new ArrayList<>();
+        for (CourseLesson lesson : lessons) {
+            lessonIds.add(lesson.getId());
+        }
+        Collections.reverse(lessonIds);
+
+        long start = System.currentTimeMillis();
+        boolean sortResult = courseLessonService.updateLessonSort(lessonIds);
+        System.out.println("400个课时重排结果: " + sortResult + "，耗时: " + (System.currentTimeMillis() - start) + "ms");
+
+        assertTrue(sortResult);
+
+        List<CourseLesson> sorted = courseLessonService.getLessonsByChapterId(createdChapter.getId());
+        System.out.println("重排后第一个课时: " + sorted.get(0).getTitle());
+        assertEquals("课时399", sorted.get(0).getTitle());
+        assertEquals("课时0", sorted.get(sorted.size() - 1).getTitle());
+
+        // 400行全部按请求顺序更新：第 i 个ID的排序号为 i
+        Map<Long, Integer> sortOrders = new HashMap<>();
+        for (CourseLesson lesson : courseLessonService.listByIds(lessonIds)) {
+            sortOrders.put(lesson.getId(), lesson.getSortOrder());
+        }
+        assertEquals(400, sortOrders.size());
+        for (int i = 0; i < lessonIds.size(); i++) {
+            assertEquals(Integer.valueOf(i), sortOrders.get(lessonIds.get(i)));
+        }
+
+        // 清理测试数据
+        courseLessonService.removeByIds(lessonIds);
+        courseChapterService.deleteChapter(createdChapter.getId());
+        courseService.deleteCourse(createdCourse.getId());
+    }
+
     /**
      * 测试搜索功能
      */
@@ -0,0 +1,116 @@
+package com.edu.modules.learning.progress;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 观看区间集合测试（纯逻辑，不启动容器）
+ */
+public class WatchIntervalsTest {
+
+    @Test
+    public void testOverlapMerges() {
+        WatchIntervals intervals = new WatchIntervals();
+        intervals.add(0, 10);
+        intervals.add(5, 20);
+        assertEquals("0-20", intervals.encode());
+        assertEquals(20, intervals.length());
+
+        // 跨越多个区间的一段吞并全部后继
+        intervals.add(30, 40);
+        intervals.add(50, 60);
+        intervals.add(15, 55);
+        assertEquals("0-60", intervals.encode());
+        assertEquals(60, intervals.length());
+    }
+
+    @Test
+    public void testAdjacentMerges() {
+        WatchIntervals intervals = new WatchIntervals();
+        intervals.add(0, 10);
+        intervals.add(10, 20);
+        assertEquals("0-20", intervals.encode());
+
+        intervals.add(30, 40);
+        intervals.add(20, 30);
+        assertEquals("0-40", intervals.encode());
+        assertEquals(40, intervals.length());
+    }
+
+    @Test
+    public void testReplayDoesNotCountTwice() {
+        WatchIntervals intervals = new WatchIntervals();
+        intervals.add(0, 60);
+        intervals.add(10, 20);
+        intervals.add(0, 60);
+        assertEquals("0-60", intervals.encode());
+        assertEquals(60, intervals.length());
+        assertEquals(50, intervals.coverage(120));
+    }
+
+    @Test
+    public void testInvalidRangesIgnored() {
+        WatchIntervals intervals = new WatchIntervals();
+        intervals.add(10, 10);
+        intervals.add(20, 5);
+        assertTrue(intervals.isEmpty());
+
+        intervals.add(-5, 5);
+        assertEquals("0-5", intervals.encode());
+        assertEquals(5, intervals.length());
+    }
+
+    @Test
+    public void testDecodeRoundTripAndUnion() {
+        WatchIntervals intervals = new WatchIntervals();
+        intervals.add(0, 10);
+        intervals.add(30, 45);
+        WatchIntervals decoded = WatchIntervals.decode(intervals.encode());
+        assertEquals(intervals.encode(), decoded.encode());
+        assertEquals(25, decoded.length());
+
+        // 多个结果以 ';' 拼接时取并集
+        WatchIntervals union = WatchIntervals.decode("0-10,30-45;5-35");
+        assertEquals("0-45", union.encode());
+        assertEquals(45, union.length());
+
+        assertTrue(WatchIntervals.decode(null).isEmpty());
+        assertTrue(WatchIntervals.decode("").isEmpty());
+    }
+
+    @Test
+    public void testAddAll() {
+        WatchIntervals stored = WatchIntervals.decode("0-10,20-30");
+        WatchIntervals pending = WatchIntervals.decode("10-20,40-50");
+        stored.addAll(pending);
+        assertEquals("0-30,40-50", stored.encode());
+        assertEquals(40, stored.length());
+    }
+
+    @Test
+    public void testCollapseNeverCreditsGaps() {
+        WatchIntervals intervals = new WatchIntervals();
+        // 每段 2 秒，间隔 8 秒；第 1 段为 5 秒，最短的是其余各段
+        intervals.add(0, 5);
+        int watched = 5;
+        for (int i = 1; i <= WatchIntervals.MAX_INTERVALS; i++) {
+            intervals.add(i * 10, i * 10 + 2);
+            watched += 2;
+        }
+        assertEquals(WatchIntervals.MAX_INTERVALS, intervals.size());
+        // 超出上限时丢弃一段最短区间，观看时长只会减少
+        assertEquals(watched - 2, intervals.length());
+        assertTrue(intervals.length() <= watched);
+        assertTrue(intervals.encode().startsWith("0-5,"));
+
+        // 长度与编码后的区间一致，重新解析不会放大
+        WatchIntervals decoded = WatchIntervals.decode(intervals.encode());
+        assertEquals(intervals.length(), decoded.length());
+
+        // 零散观看远超时长，覆盖率也不会因合并间隔而虚高
+        assertFalse(intervals.coverage(WatchIntervals.MAX_INTERVALS * 10 + 2) >= 90);
+    }
+}
@@ -0,0 +1,158 @@
+package com.edu.modules.system.service.impl;
+
+import com.edu.modules.system.entity.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 权限资源匹配器测试（纯逻辑，不启动容器）
+ */
+public class PermissionMatcherTest {
+
+    @Test
+    public void testLiteralPath() {
+        PermissionMatcher matcher = matcher(permission("/api/users", null));
+        assertEquals(bits(0), matcher.match("GET", "/api/users"));
+        assertNull(matcher.match("GET", "/api/users/1"));
+        assertNull(matcher.match("GET", "/api/user"));
+        assertNull(matcher.match("GET", "/api"));
+    }
+
+    @Test
+    public void testTrailingSlash() {
+        // Spring MVC 把 /api/courses/ 交给 /api/courses 的处理器，规则也须命中
+        PermissionMatcher matcher = matcher(permission("/api/courses", "POST"));
+        assertEquals(bits(0), matcher.match("POST", "/api/courses/"));
+        assertEquals(bits(0), matcher.match("POST", "/api/courses//"));
+        assertNull(matcher.match("GET", "/api/courses/"));
+    }
+
+    @Test
+    public void testSingleSegmentWildcard() {
+        PermissionMatcher matcher = matcher(permission("/api/courses/*", null));
+        assertEquals(bits(0), matcher.match("GET", "/api/courses/1"));
+        assertEquals(bits(0), matcher.match("DELETE", "/api/courses/abc"));
+        // 单段通配不匹配空段、不跨段
+        assertNull(matcher.match("GET", "/api/courses/"));
+        assertNull(matcher.match("GET", "/api/courses"));
+        assertNull(matcher.match("GET", "/api/courses/1/chapters"));
+    }
+
+    @Test
+    public void testWildcardInMiddle() {
+        PermissionMatcher matcher = matcher(permission("/api/courses/*/chapters", null));
+        assertEquals(bits(0), matcher.match("GET", "/api/courses/7/chapters"));
+        assertNull(matcher.match("GET", "/api/courses/7/lessons"));
+        assertNull(matcher.match("GET", "/api/courses//chapters"));
+    }
+
+    @Test
+    public void testPrefixWildcard() {
+        PermissionMatcher matcher = matcher(permission("/api/system/**", null));
+        assertEquals(bits(0), matcher.match("GET", "/api/system"));
+        assertEquals(bits(0), matcher.match("GET", "/api/system/roles"));
+        assertEquals(bits(0), matcher.match("POST", "/api/system/roles/1/permissions"));
+        assertNull(matcher.match("GET", "/api/systems"));
+
+        PermissionMatcher all = matcher(permission("/**", null));
+        assertEquals(bits(0), all.match("GET", "/"));
+        assertEquals(bits(0), all.match("GET", "/anything/at/all"));
+    }
+
+    @Test
+    public void testMostSpecificRuleWins() {
+        PermissionMatcher matcher = matcher(
+                permission("/api/courses/**", null),
+                permission("/api/courses/*", null),
+                permission("/api/courses/hot", null));
+        assertEquals(bits(2), matcher.match("GET", "/api/courses/hot"));
+        assertEquals(bits(1), matcher.match("GET", "/api/courses/5"));
+        assertEquals(bits(0), matcher.match("GET", "/api/courses/5/reviews"));
+        assertEquals(bits(0), matcher.match("GET", "/api/courses"));
+    }
+
+    @Test
+    public void testLiteralFallsBackToWildcard() {
+        // 字面分支走到底未命中时回退到同层的单段通配
+        PermissionMatcher matcher = matcher(
+                permission("/api/courses/hot/list", null),
+                permission("/api/courses/*/reviews", null));
+        assertEquals(bits(1), matcher.match("GET", "/api/courses/hot/reviews"));
+        assertEquals(bits(0), matcher.match("GET", "/api/courses/hot/list"));
+    }
+
+    @Test
+    public void testRulesOnSamePatternAreMerged() {
+        PermissionMatcher matcher = matcher(
+                permission("/api/exams/*", null),
+                permission("/api/exams/*", "GET"));
+        assertEquals(bits(0, 1), matcher.match("GET", "/api/exams/3"));
+        assertEquals(bits(0), matcher.match("PUT", "/api/exams/3"));
+    }
+
+    @Test
+    public void testMethods() {
+        PermissionMatcher matcher = matcher(
+                permission("/api/users/*", "PUT, delete"),
+                permission("/api/users/*", "*"));
+        assertEquals(bits(0, 1), matcher.match("PUT", "/api/users/1"));
+        assertEquals(bits(0, 1), matcher.match("DELETE", "/api/users/1"));
+        assertEquals(bits(1), matcher.match("GET", "/api/users/1"));
+        assertEquals(bits(1), matcher.match("TRACE", "/api/users/1"));
+
+        // 方法不符时回退到更宽的规则
+        PermissionMatcher scoped = matcher(
+                permission("/api/files/**", null),
+                permission("/api/files/*", "POST"));
+        assertEquals(bits(1), scoped.match("POST", "/api/files/upload"));
+        assertEquals(bits(0), scoped.match("GET", "/api/files/upload"));
+    }
+
+    @Test
+    public void testMultipleResourcesAndDisabled() {
+        Permission disabled = permission("/api/reviews/**", null);
+        disabled.setStatus(0);
+        PermissionMatcher matcher = matcher(
+                permission("/api/exams/*, /api/exercises/*, not-a-path", null),
+                disabled,
+                permission("", null));
+        assertEquals(2, matcher.getRuleCount());
+        assertEquals(bits(0), matcher.match("GET", "/api/exams/1"));
+        assertEquals(bits(0), matcher.match("GET", "/api/exercises/1"));
+        assertNull(matcher.match("GET", "/api/reviews/1"));
+    }
+
+    @Test
+    public void testInvalidRequestPath() {
+        PermissionMatcher matcher = matcher(permission("/**", null));
+        assertNull(matcher.match("GET", null));
+        assertNull(matcher.match("GET", ""));
+        assertNull(matcher.match("GET", "api/users"));
+    }
+
+    private static PermissionMatcher matcher(Permission... permissions) {
+        return new PermissionMatcher(new ArrayList<>(Arrays.asList(permissions)));
+    }
+
+    private static Permission permission(String resource, String method) {
+        Permission permission = new Permission();
+        permission.setResource(resource);
+        permission.setMethod(method);
+        permission.setStatus(1);
+        return permission;
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,76 @@
+package com.edu.modules.user;
+
+import com.edu.common.utils.JwtUtils;
+import com.edu.modules.user.entity.User;
+import com.edu.modules.user.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 用户模块测试
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserModuleTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * 测试用户资料缓存
+     */
+    @Test
+    public void testProfileCache() {
+        User user = userService.register("cache_" + System.currentTimeMillis(), "123456", "缓存测试", 1);
+
+        User first = userService.getProfile(user.getId());
+        User second = userService.getProfile(user.getId());
+        Assertions.assertNull(first.getPassword());
+        Assertions.assertEquals(user.getUsername(), second.getUsername());
+
+        // 更新后读取到新数据
+        User update = new User();
+        update.setId(user.getId());
+        update.setNickname("已修改");
+        userService.updateUser(update);
+        Assertions.assertEquals("已修改", userService.getProfile(user.getId()).getNickname());
+
+        System.out.println("用户缓存统计: " + userService.getCacheStats());
+        userService.removeById(user.getId());
+        Assertions.assertNull(userService.getProfile(user.getId()));
+    }
+
+    /**
+     * 测试禁用用户后立即拒绝其请求
+     */
+    @Test
+    public void testDisabledUserRejected() throws Exception {
+        User user = userService.register("disable_" + System.currentTimeMillis(), "123456", "禁用测试", 1);
+        String token = jwtUtils.getTokenHead() + " "
+                + jwtUtils.generateToken(user.getUsername(), user.getId(), user.getRole());
+
+        // 启用状态可正常访问，同时缓存用户资料
+        mockMvc.perform(get("/api/users/profile").header(jwtUtils.getHeader(), token))
+                .andExpect(status().isOk());
+
+        // 禁用后同一token立即被拒绝
+        userService.updateUserStatus(user.getId(), 0);
+        mockMvc.perform(get("/api/users/profile").header(jwtUtils.getHeader(), token))
+                .andExpect(status().isForbidden());
+
+        userService.removeById(user.getId());
+    }
+}
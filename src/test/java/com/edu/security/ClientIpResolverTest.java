@@ -0,0 +1,108 @@
+package com.edu.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 客户端IP识别测试（纯逻辑，不启动容器）
+ */
+public class ClientIpResolverTest {
+
+    private static final String XFF = "X-Forwarded-For";
+
+    @Test
+    public void testHeaderIgnoredWhenNotConfigured() {
+        ClientIpResolver resolver = resolver("", "10.0.0.0/8");
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", "203.0.113.7")));
+    }
+
+    @Test
+    public void testUntrustedPeerHeaderIgnored() {
+        ClientIpResolver resolver = resolver(XFF, "10.0.0.0/8");
+        // 客户端直连时自带的请求头不被采信
+        assertEquals("198.51.100.9", resolver.resolve(request("198.51.100.9", "203.0.113.7")));
+        assertEquals("11.0.0.1", resolver.resolve(request("11.0.0.1", "203.0.113.7")));
+    }
+
+    @Test
+    public void testTrustedPeerWithoutHeader() {
+        ClientIpResolver resolver = resolver(XFF, "10.0.0.0/8");
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", null)));
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", " ")));
+    }
+
+    @Test
+    public void testRightmostUntrustedHop() {
+        ClientIpResolver resolver = resolver(XFF, "10.0.0.0/8");
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.5", "203.0.113.7")));
+        // 经过多级可信代理
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.5", "203.0.113.7, 10.0.0.2,10.0.0.3")));
+    }
+
+    @Test
+    public void testSpoofedEntriesIgnored() {
+        ClientIpResolver resolver = resolver(XFF, "10.0.0.0/8");
+        // 客户端伪造的左侧条目位于真实客户端地址之前，不会被取用
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.5", "1.2.3.4, 203.0.113.7")));
+        // 伪造成可信代理地址也不能越过真实客户端地址
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.5", "10.0.0.9, 203.0.113.7")));
+        // 无法解析的条目之前的内容不可信
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", "1.2.3.4, not-an-ip")));
+        assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.5", "1.2.3.4, 256.0.0.1, 10.0.0.2")));
+        assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.5", "1.2.3.4, ,10.0.0.2")));
+    }
+
+    @Test
+    public void testAllHopsTrusted() {
+        ClientIpResolver resolver = resolver(XFF, "10.0.0.0/8");
+        assertEquals("10.0.0.1", resolver.resolve(request("10.0.0.5", "10.0.0.1, 10.0.0.2")));
+    }
+
+    @Test
+    public void testCidrBoundaries() {
+        ClientIpResolver resolver = resolver(XFF, "192.168.1.0/25, 127.0.0.1");
+        assertEquals("203.0.113.7", resolver.resolve(request("192.168.1.127", "203.0.113.7")));
+        assertEquals("192.168.1.128", resolver.resolve(request("192.168.1.128", "203.0.113.7")));
+        assertEquals("203.0.113.7", resolver.resolve(request("127.0.0.1", "203.0.113.7")));
+        assertEquals("127.0.0.2", resolver.resolve(request("127.0.0.2", "203.0.113.7")));
+    }
+
+    @Test
+    public void testIpv6Cidr() {
+        ClientIpResolver resolver = resolver(XFF, "fd00::/8, ::1");
+        assertEquals("2001:db8::5", resolver.resolve(request("fd12:3456::1", "2001:db8::5")));
+        assertEquals("2001:db8::5", resolver.resolve(request("0:0:0:0:0:0:0:1", "2001:db8::5")));
+        assertEquals("fe80::1", resolver.resolve(request("fe80::1", "2001:db8::5")));
+        // 地址族不同不匹配
+        assertEquals("10.0.0.5", resolver.resolve(request("10.0.0.5", "2001:db8::5")));
+        // IPv6 代理转发 IPv4 客户端
+        assertEquals("203.0.113.7", resolver.resolve(request("fd00::2", "203.0.113.7, fd00::3")));
+    }
+
+    @Test
+    public void testInvalidTrustedEntrySkipped() {
+        ClientIpResolver resolver = resolver(XFF, "proxy.internal, 10.0.0.1");
+        assertEquals("203.0.113.7", resolver.resolve(request("10.0.0.1", "203.0.113.7")));
+        assertEquals("10.0.0.2", resolver.resolve(request("10.0.0.2", "203.0.113.7")));
+    }
+
+    private static ClientIpResolver resolver(String header, String trustedProxies) {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "header", header);
+        ReflectionTestUtils.setField(resolver, "trustedProxies", trustedProxies);
+        resolver.init();
+        return resolver;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwarded) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwarded != null) {
+            request.addHeader(XFF, forwarded);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package com.edu.security;
+
+import com.edu.common.enums.ResultCode;
+import com.edu.common.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 登录失败限流器测试（纯逻辑，不启动容器）
+ */
+public class LoginAttemptLimiterTest {
+
+    private static final long WINDOW = 1000;
+
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        limiter = new LoginAttemptLimiter();
+        ReflectionTestUtils.setField(limiter, "maxPerAccount", 3);
+        ReflectionTestUtils.setField(limiter, "maxPerIp", 5);
+        ReflectionTestUtils.setField(limiter, "window", WINDOW);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 100);
+    }
+
+    @Test
+    public void testAccountLockout() {
+        limiter.recordFailure("alice", "203.0.113.1", 0);
+        limiter.recordFailure("alice", "203.0.113.2", 1);
+        assertAllowed("alice", "203.0.113.3", 2);
+        limiter.recordFailure("alice", "203.0.113.3", 2);
+        // 换IP也不能绕过账号维度的限制
+        assertBlocked("alice", "203.0.113.4", 3);
+        assertAllowed("bob", "203.0.113.4", 3);
+    }
+
+    @Test
+    public void testIpLockout() {
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("user" + i, "203.0.113.1", i);
+        }
+        // 逐个尝试不同账号也会被IP维度拦截
+        assertBlocked("user9", "203.0.113.1", 5);
+        assertAllowed("user9", "203.0.113.2", 5);
+    }
+
+    @Test
+    public void testWindowExpiry() {
+        limiter.recordFailure("alice", "203.0.113.1", 0);
+        limiter.recordFailure("alice", "203.0.113.1", 10);
+        limiter.recordFailure("alice", "203.0.113.1", 20);
+        assertBlocked("alice", "203.0.113.1", WINDOW - 1);
+        // 最早一次失败恰好滑出窗口
+        assertAllowed("alice", "203.0.113.1", WINDOW);
+        limiter.recordFailure("alice", "203.0.113.1", WINDOW);
+        assertBlocked("alice", "203.0.113.1", WINDOW + 5);
+        assertAllowed("alice", "203.0.113.1", WINDOW + 20);
+        assertAllowed("alice", "203.0.113.1", 3 * WINDOW);
+    }
+
+    @Test
+    public void testSuccessClearsAccountOnly() {
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("alice", "203.0.113.1", i);
+        }
+        limiter.recordFailure("bob", "203.0.113.1", 3);
+        limiter.recordFailure("carol", "203.0.113.1", 4);
+        limiter.recordSuccess("alice");
+        assertAllowed("alice", "203.0.113.2", 5);
+        // IP维度的失败记录不因某个账号登录成功而清除
+        assertBlocked("alice", "203.0.113.1", 5);
+    }
+
+    @Test
+    public void testNullKeysIgnored() {
+        for (int i = 0; i < 10; i++) {
+            limiter.recordFailure(null, null, i);
+        }
+        assertAllowed(null, null, 10);
+        limiter.recordSuccess(null);
+    }
+
+    @Test
+    public void testExpiredKeysEvictedWhenFull() {
+        ReflectionTestUtils.setField(limiter, "maxKeys", 3);
+        limiter.recordFailure("bob", null, 0);
+        limiter.recordFailure("carol", null, 1);
+        limiter.recordFailure("alice", null, WINDOW);
+        limiter.recordFailure("alice", null, WINDOW + 1);
+        limiter.recordFailure("alice", null, WINDOW + 2);
+        // 表满时只回收已过期的记录，未过期的锁定保持有效
+        limiter.recordFailure("dave", null, WINDOW + 500);
+        assertBlocked("alice", null, WINDOW + 500);
+        assertAllowed("dave", null, WINDOW + 500);
+    }
+
+    private void assertAllowed(String username, String ip, long now) {
+        assertDoesNotThrow(() -> limiter.checkAllowed(username, ip, now));
+    }
+
+    private void assertBlocked(String username, String ip, long now) {
+        BusinessException e = assertThrows(BusinessException.class, () -> limiter.checkAllowed(username, ip, now));
+        assertEquals(ResultCode.TOO_MANY_REQUESTS, e.getResultCode());
+    }
+}
@@ -0,0 +1,116 @@
+package com.edu.security;
+
+import com.edu.common.config.RoutePolicyConfig;
+import com.edu.common.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路由策略匹配器测试（纯逻辑，不启动容器）
+ */
+public class RoutePolicyMatcherTest {
+
+    private RoutePolicyMatcher matcher;
+
+    @BeforeEach
+    public void setUp() {
+        RoutePolicyConfig config = new RoutePolicyConfig();
+        config.setDefaultAccess("authenticated");
+        config.getRoutes().add(route("/api/auth/login", null, "public", null));
+        config.getRoutes().add(route("/api/health/**", null, "public", null));
+        config.getRoutes().add(route("/**", "OPTIONS", "public", null));
+        config.getRoutes().add(route("/api/courses", "GET", "public", null));
+        config.getRoutes().add(route("/api/courses/*", "GET", "public", null));
+        config.getRoutes().add(route("/api/courses/*/chapters/**", "GET", "public", null));
+        config.getRoutes().add(route("/api/system/**", null, "role", "ADMIN"));
+        config.getRoutes().add(route("/api/learning/courses/*/enrollments/bulk", null, "role", "ADMIN"));
+
+        matcher = new RoutePolicyMatcher();
+        ReflectionTestUtils.setField(matcher, "routePolicyConfig", config);
+        matcher.init();
+    }
+
+    @Test
+    public void testLiteralAndDefault() {
+        assertEquals("/api/auth/login", matcher.match("POST", "/api/auth/login").getPattern());
+        assertEquals("<default>", matcher.match("POST", "/api/auth/logout").getPattern());
+        assertEquals("<default>", matcher.match("GET", "/api/auth/login2").getPattern());
+        assertEquals("<default>", matcher.match("GET", null).getPattern());
+    }
+
+    @Test
+    public void testSingleSegmentWildcard() {
+        assertEquals("/api/courses/*", matcher.match("GET", "/api/courses/5").getPattern());
+        assertEquals("/api/courses", matcher.match("GET", "/api/courses").getPattern());
+        // 指定方法的规则不覆盖其他方法
+        assertEquals("<default>", matcher.match("DELETE", "/api/courses/5").getPattern());
+        // 单段通配不跨段
+        assertEquals("<default>", matcher.match("GET", "/api/courses/5/reviews").getPattern());
+        assertEquals("/api/learning/courses/*/enrollments/bulk",
+                matcher.match("POST", "/api/learning/courses/5/enrollments/bulk").getPattern());
+    }
+
+    @Test
+    public void testPrefixWildcard() {
+        assertEquals("/api/system/**", matcher.match("GET", "/api/system").getPattern());
+        assertEquals("/api/system/**", matcher.match("PUT", "/api/system/roles/1").getPattern());
+        assertEquals("<default>", matcher.match("GET", "/api/systems").getPattern());
+        assertEquals("/api/courses/*/chapters/**", matcher.match("GET", "/api/courses/5/chapters/9").getPattern());
+        assertEquals("/**", matcher.match("OPTIONS", "/api/learning/progress").getPattern());
+        // 更长的前缀通配优先
+        assertEquals("/api/system/**", matcher.match("OPTIONS", "/api/system/roles").getPattern());
+    }
+
+    @Test
+    public void testTrailingSlash() {
+        assertEquals("/api/learning/courses/*/enrollments/bulk",
+                matcher.match("POST", "/api/learning/courses/5/enrollments/bulk/").getPattern());
+        assertEquals("/api/courses", matcher.match("GET", "/api/courses/").getPattern());
+        assertEquals("/api/courses/*", matcher.match("GET", "/api/courses/5//").getPattern());
+        assertEquals("/api/system/**", matcher.match("DELETE", "/api/system/").getPattern());
+    }
+
+    @Test
+    public void testRequestPathNormalization() {
+        assertEquals("/api/learning/courses/5/enrollments/bulk",
+                lookupPath("/api/learning/courses/5/enrollments/%62ulk"));
+        assertEquals("/api/learning/courses/5/enrollments/bulk",
+                lookupPath("/api/learning/courses/5/enrollments/bulk/"));
+        assertEquals("/api/learning/courses/5/enrollments/bulk",
+                lookupPath("/api/learning/courses/5/enrollments/bulk;jsessionid=x"));
+        assertEquals("/api/system/roles", lookupPath("/api//system/roles"));
+        assertEquals("/", lookupPath("/"));
+
+        RoutePolicy policy = matcher.match("POST", lookupPath("/api/learning/courses/5/enrollments/%62ulk/"));
+        assertEquals("/api/learning/courses/*/enrollments/bulk", policy.getPattern());
+        assertEquals(RoutePolicy.Access.ROLE, policy.getAccess());
+    }
+
+    @Test
+    public void testRoleAccess() {
+        RoutePolicy policy = matcher.match("POST", "/api/learning/courses/5/enrollments/bulk");
+        assertFalse(policy.allowsRole(UserRole.STUDENT.getCode()));
+        assertTrue(policy.allowsRole(UserRole.ADMIN.getCode()));
+        assertTrue(matcher.match("GET", "/api/courses/5").isPublic());
+    }
+
+    private static String lookupPath(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        return RequestPaths.lookupPath(request);
+    }
+
+    private static RoutePolicyConfig.Route route(String pattern, String methods, String access, String roles) {
+        RoutePolicyConfig.Route route = new RoutePolicyConfig.Route();
+        route.setPattern(pattern);
+        route.setMethods(methods);
+        route.setAccess(access);
+        route.setRoles(roles);
+        return route;
+    }
+}